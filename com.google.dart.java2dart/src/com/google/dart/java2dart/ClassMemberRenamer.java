@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.dart.engine.ast.ClassDeclaration;
+import com.google.dart.engine.ast.ClassMember;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.CompilationUnitMember;
+import com.google.dart.engine.ast.ExtendsClause;
+import com.google.dart.engine.ast.FieldDeclaration;
+import com.google.dart.engine.ast.Identifier;
+import com.google.dart.engine.ast.ImplementsClause;
+import com.google.dart.engine.ast.MethodDeclaration;
+import com.google.dart.engine.ast.PrefixedIdentifier;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.TypeName;
+import com.google.dart.engine.ast.VariableDeclaration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gives unique names to the members of the translated classes, because Dart has no overloading and
+ * fields and methods share the same namespace.
+ * <p>
+ * Super types are found by "extends" and "implements" clauses between translated classes. Each
+ * class sees names of its own members and of the members of all its super types, so members of
+ * unrelated classes, even with the common super type, don't conflict. A method with the same name
+ * and parameter types always gets the same Dart name as in super types, and a method which
+ * overrides a method of generic super type gets the name of the overridden method, so that
+ * overriding methods still override. Super types are processed before sub types. In each class
+ * names of members added during translation are kept, then methods are processed before fields, so
+ * method names are preferred.
+ * <p>
+ * Names of a class are shared with its only sub type, and copied only for classes with several sub
+ * types or several super types, so that deep hierarchies are processed in linear time.
+ * <p>
+ * Constructors are not renamed, see readme.
+ */
+class ClassMemberRenamer {
+  /**
+   * Names of members visible in a class.
+   */
+  private static class HierarchyNames {
+    private final Map<String, String> memberKeyToName = Maps.newHashMap();
+    private final Set<String> usedNames = Sets.newHashSet();
+    private final Map<String, Integer> nextIndices = Maps.newHashMap();
+
+    /**
+     * Adds names from the given {@link HierarchyNames}.
+     */
+    void addAll(HierarchyNames other) {
+      memberKeyToName.putAll(other.memberKeyToName);
+      usedNames.addAll(other.usedNames);
+      for (Map.Entry<String, Integer> entry : other.nextIndices.entrySet()) {
+        Integer nextIndex = nextIndices.get(entry.getKey());
+        if (nextIndex == null || nextIndex < entry.getValue()) {
+          nextIndices.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+
+    /**
+     * @return the unused name based on the given name, remembered as used.
+     */
+    String newName(String name) {
+      if (usedNames.add(name)) {
+        return name;
+      }
+      Integer nextIndex = nextIndices.get(name);
+      int index = nextIndex != null ? nextIndex : 2;
+      String newName;
+      while (true) {
+        newName = name + index;
+        index++;
+        if (usedNames.add(newName)) {
+          break;
+        }
+      }
+      nextIndices.put(name, index);
+      return newName;
+    }
+  }
+
+  /**
+   * @return the signature of the type erasure, i.e. without type arguments.
+   */
+  static String getErasureSignature(String signature) {
+    int typeArgumentsIndex = signature.indexOf('<');
+    if (typeArgumentsIndex != -1) {
+      return signature.substring(0, typeArgumentsIndex) + ";";
+    }
+    return signature;
+  }
+
+  private final Context context;
+  private final List<ClassDeclaration> classes = Lists.newArrayList();
+  private final Map<String, Integer> classIndices = Maps.newHashMap();
+  private List<List<Integer>> superIndices;
+  private int[] depths;
+  private int renameCount;
+
+  ClassMemberRenamer(Context context) {
+    this.context = context;
+  }
+
+  /**
+   * Gives unique names to the members of the classes in the given units.
+   * 
+   * @return the number of renamed members.
+   */
+  int rename(Collection<CompilationUnit> units) {
+    // index classes
+    for (CompilationUnit unit : units) {
+      for (CompilationUnitMember member : unit.getDeclarations()) {
+        if (member instanceof ClassDeclaration) {
+          ClassDeclaration classDeclaration = (ClassDeclaration) member;
+          String signature = getTypeSignature(classDeclaration.getName());
+          if (signature != null) {
+            classIndices.put(signature, classes.size());
+          }
+          classes.add(classDeclaration);
+        }
+      }
+    }
+    // find super types and count sub types
+    int classCount = classes.size();
+    superIndices = Lists.newArrayListWithCapacity(classCount);
+    int[] subCounts = new int[classCount];
+    depths = new int[classCount];
+    for (int i = 0; i < classCount; i++) {
+      List<Integer> indices = getSuperIndices(classes.get(i));
+      superIndices.add(indices);
+      for (int superIndex : indices) {
+        subCounts[superIndex]++;
+      }
+      depths[i] = -1;
+    }
+    // process super types before sub types
+    computeDepths();
+    List<Integer> order = Lists.newArrayListWithCapacity(classCount);
+    for (int i = 0; i < classCount; i++) {
+      order.add(i);
+    }
+    Collections.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        int depth1 = depths[o1];
+        int depth2 = depths[o2];
+        if (depth1 != depth2) {
+          return depth1 < depth2 ? -1 : 1;
+        }
+        return o1.compareTo(o2);
+      }
+    });
+    HierarchyNames[] classNames = new HierarchyNames[classCount];
+    for (int classIndex : order) {
+      List<Integer> indices = superIndices.get(classIndex);
+      HierarchyNames names;
+      if (indices.size() == 1 && subCounts[indices.get(0)] == 1
+          && classNames[indices.get(0)] != null) {
+        // the only sub type, continue with names of super type
+        names = classNames[indices.get(0)];
+      } else {
+        names = new HierarchyNames();
+        for (int superIndex : indices) {
+          if (classNames[superIndex] != null) {
+            names.addAll(classNames[superIndex]);
+          }
+        }
+      }
+      renameMembers(names, classes.get(classIndex));
+      classNames[classIndex] = names;
+    }
+    return renameCount;
+  }
+
+  /**
+   * Adds index of the given type to the given {@link List}, if it is translated class.
+   */
+  private void addTypeIndex(List<Integer> indices, TypeName type) {
+    String signature = getTypeSignature(type.getName());
+    Integer index = classIndices.get(signature);
+    if (index != null && !indices.contains(index)) {
+      indices.add(index);
+    }
+  }
+
+  /**
+   * Fills {@link #depths} with the length of the longest chain of translated super types of each
+   * class. Walks super types with explicit stack, because chains may be long.
+   */
+  private void computeDepths() {
+    int classCount = depths.length;
+    int[] stack = new int[classCount];
+    int[] superPositions = new int[classCount];
+    for (int i = 0; i < classCount; i++) {
+      if (depths[i] != -1) {
+        continue;
+      }
+      // class on the stack has depth 0, to stop on cycles in invalid code
+      int size = 0;
+      depths[i] = 0;
+      stack[size] = i;
+      superPositions[size++] = 0;
+      while (size != 0) {
+        List<Integer> indices = superIndices.get(stack[size - 1]);
+        if (superPositions[size - 1] < indices.size()) {
+          int superIndex = indices.get(superPositions[size - 1]++);
+          if (depths[superIndex] == -1) {
+            depths[superIndex] = 0;
+            stack[size] = superIndex;
+            superPositions[size++] = 0;
+          }
+        } else {
+          // all super types are done
+          int depth = 0;
+          for (int superIndex : indices) {
+            depth = Math.max(depth, depths[superIndex] + 1);
+          }
+          depths[stack[--size]] = depth;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives unique name to the member with the given declaration name.
+   */
+  private void ensureUniqueName(HierarchyNames names, Identifier declarationName) {
+    if (declarationName instanceof SimpleIdentifier) {
+      SimpleIdentifier declarationIdentifier = (SimpleIdentifier) declarationName;
+      String signature = context.getReferenceSignature(declarationIdentifier);
+      if (signature == null) {
+        names.usedNames.add(declarationIdentifier.getName());
+        return;
+      }
+      // if overridden member was already named, use the same name
+      String memberKey = getMemberKey(declarationIdentifier, signature);
+      String newName = names.memberKeyToName.get(memberKey);
+      if (newName == null) {
+        newName = names.newName(declarationIdentifier.getName());
+        names.memberKeyToName.put(memberKey, newName);
+      }
+      // rename if needed
+      if (!newName.equals(declarationIdentifier.getName())) {
+        context.renameReferences(declarationIdentifier, newName);
+        renameCount++;
+      }
+    }
+  }
+
+
+  /**
+   * @return the key of the member, same for the overriding methods. Overriding method uses
+   *         parameter types of the overridden method, because they may be type variables of the
+   *         generic super type.
+   */
+  private String getMemberKey(SimpleIdentifier name, String signature) {
+    String overriddenSignature = context.getOverriddenSignature(name);
+    if (overriddenSignature != null) {
+      signature = overriddenSignature;
+    }
+    int parametersIndex = signature.indexOf('(');
+    if (parametersIndex != -1) {
+      return name.getName() + signature.substring(parametersIndex);
+    }
+    return name.getName();
+  }
+
+  /**
+   * @return the indices of the translated super types of the given class.
+   */
+  private List<Integer> getSuperIndices(ClassDeclaration classDeclaration) {
+    List<Integer> indices = Lists.newArrayList();
+    ExtendsClause extendsClause = classDeclaration.getExtendsClause();
+    if (extendsClause != null) {
+      addTypeIndex(indices, extendsClause.getSuperclass());
+    }
+    ImplementsClause implementsClause = classDeclaration.getImplementsClause();
+    if (implementsClause != null) {
+      for (TypeName interfaceType : implementsClause.getInterfaces()) {
+        addTypeIndex(indices, interfaceType);
+      }
+    }
+    return indices;
+  }
+
+  /**
+   * @return the erasure signature of the type referenced by the given {@link Identifier}, may be
+   *         <code>null</code>.
+   */
+  private String getTypeSignature(Identifier name) {
+    if (name instanceof PrefixedIdentifier) {
+      name = ((PrefixedIdentifier) name).getIdentifier();
+    }
+    if (name instanceof SimpleIdentifier) {
+      String signature = context.getReferenceSignature((SimpleIdentifier) name);
+      if (signature != null) {
+        return getErasureSignature(signature);
+      }
+    }
+    return null;
+  }
+
+  private void renameMembers(HierarchyNames names, ClassDeclaration classDeclaration) {
+    // reserve names of added members, such as "name" and "ordinal" of enum
+    for (ClassMember member : classDeclaration.getMembers()) {
+      if (member instanceof MethodDeclaration) {
+        reserveName(names, ((MethodDeclaration) member).getName());
+      }
+      if (member instanceof FieldDeclaration) {
+        FieldDeclaration fieldDeclaration = (FieldDeclaration) member;
+        for (VariableDeclaration field : fieldDeclaration.getFields().getVariables()) {
+          reserveName(names, field.getName());
+        }
+      }
+    }
+    // ensure unique method names (and prefer to keep method name over field name)
+    for (ClassMember member : classDeclaration.getMembers()) {
+      if (member instanceof MethodDeclaration) {
+        MethodDeclaration methodDeclaration = (MethodDeclaration) member;
+        ensureUniqueName(names, methodDeclaration.getName());
+      }
+    }
+    // ensure unique field names (if name is already used be method)
+    for (ClassMember member : classDeclaration.getMembers()) {
+      if (member instanceof FieldDeclaration) {
+        FieldDeclaration fieldDeclaration = (FieldDeclaration) member;
+        for (VariableDeclaration field : fieldDeclaration.getFields().getVariables()) {
+          ensureUniqueName(names, field.getName());
+        }
+      }
+    }
+  }
+
+  /**
+   * Remembers the name of the member with the given declaration name as used, if it has no binding,
+   * i.e. it was added during translation and cannot be renamed.
+   */
+  private void reserveName(HierarchyNames names, Identifier declarationName) {
+    if (declarationName instanceof SimpleIdentifier) {
+      SimpleIdentifier declarationIdentifier = (SimpleIdentifier) declarationName;
+      if (context.getReferenceSignature(declarationIdentifier) == null) {
+        names.usedNames.add(declarationIdentifier.getName());
+      }
+    }
+  }
+}
@@ -13,10 +13,14 @@
  */
 package com.google.dart.java2dart;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.LineNumberReader;
+import java.io.PrintStream;
+import java.util.Arrays;
 
 /**
  * Reads a configuration file to determine what should be translated and how. The translator can
@@ -31,6 +35,15 @@ import java.io.LineNumberReader;
  * <pre>
  * java2dart &lt;config-file>.j2d
  * </pre>
+ * 
+ * Translator can also run as a resident server, see {@link Server}
+ * 
+ * <pre>
+ * java2dart server &lt;port>
+ * </pre>
+ * 
+ * Translation statistics are collected and written as JSON if arguments are preceded by
+ * <code>--stats &lt;json-file></code>, or configuration file has <code>stats:</code> line.
  */
 public class Config {
 
@@ -41,31 +54,49 @@ public class Config {
    * @return the configuration or {@code null} if there was a problem determining the configuration
    */
   public static Config from(String[] args) {
+    return from(args, System.out);
+  }
+
+  /**
+   * Determine the configuration based upon the specified arguments, problems and usage are printed
+   * into the given {@link PrintStream}.
+   * 
+   * @param args the arguments (not {@code null}, contains no {@code null}s)
+   * @return the configuration or {@code null} if there was a problem determining the configuration
+   */
+  public static Config from(String[] args, PrintStream out) {
     if (args == null || args.length == 0) {
-      printUsage();
+      printUsage(out);
       return null;
     }
+    if (args.length > 2 && args[0].equals("--stats")) {
+      Config config = from(Arrays.copyOfRange(args, 2, args.length), out);
+      if (config != null) {
+        config.setStatsFile(new File(args[1]));
+      }
+      return config;
+    }
     if (args.length == 1) {
       if (args[0].equals("help")) {
-        printHelp();
+        printHelp(out);
         return null;
       }
       try {
-        return fromFile(args[0]);
+        return fromFile(args[0], out);
       } catch (IOException e) {
-        System.out.println("Failed reading config file: " + args[0]);
-        e.printStackTrace();
+        out.println("Failed reading config file: " + args[0]);
+        e.printStackTrace(out);
         return null;
       }
     }
     Context context = new Context();
-    File folder = toDirectory(args[0]);
+    File folder = toDirectory(args[0], out);
     if (folder == null) {
       return null;
     }
     context.addSourceFolder(folder);
     for (int index = 1; index < args.length; index++) {
-      File file = toFile(folder, args[index]);
+      File file = toFile(folder, args[index], out);
       if (file == null) {
         return null;
       }
@@ -74,20 +105,20 @@ public class Config {
     return new Config(context);
   }
 
-  private static Config fromFile(String configFilePath) throws IOException {
-    File file = toFile(null, configFilePath);
+  private static Config fromFile(String configFilePath, PrintStream out) throws IOException {
+    File file = toFile(null, configFilePath, out);
     if (file == null) {
       return null;
     }
     LineNumberReader reader = new LineNumberReader(new FileReader(file));
     try {
-      return fromReader(reader);
+      return fromReader(reader, out);
     } finally {
       reader.close();
     }
   }
 
-  private static Config fromReader(LineNumberReader reader) throws IOException {
+  private static Config fromReader(LineNumberReader reader, PrintStream out) throws IOException {
     Context context = new Context();
     Config config = new Config(context);
     File folder = null;
@@ -108,17 +139,47 @@ public class Config {
         line = line.substring(4).trim();
         File file = new File(line);
         if (!file.getParentFile().exists()) {
-          System.out.println("Expected existing directory to contain output file: " + line);
+          out.println("Expected existing directory to contain output file: " + line);
           return null;
         }
         config.setOutput(file);
         continue;
       }
 
+      // Line starting with "outDir:" is folder into which Dart file per source file is placed
+      if (line.startsWith("outDir:")) {
+        line = line.substring(7).trim();
+        File outputFolder = new File(line);
+        if (!outputFolder.getAbsoluteFile().getParentFile().exists()) {
+          out.println("Expected existing directory to contain output folder: " + line);
+          return null;
+        }
+        config.setOutputFolder(outputFolder);
+        continue;
+      }
+
+      // Line starting with "write:" is writing mode, "all" or "changed" output files
+      if (line.startsWith("write:")) {
+        line = line.substring(6).trim();
+        if (!line.equals("all") && !line.equals("changed")) {
+          out.println("Expected 'all' or 'changed' writing mode: " + line);
+          return null;
+        }
+        config.setWriteChangedOnly(line.equals("changed"));
+        continue;
+      }
+
+      // Line starting with "stats:" is JSON file to write translation statistics into
+      if (line.startsWith("stats:")) {
+        line = line.substring(6).trim();
+        config.setStatsFile(new File(line));
+        continue;
+      }
+
       // Lines starting with "src:" are source folders
       if (line.startsWith("src:")) {
         line = line.substring(4).trim();
-        folder = toDirectory(line);
+        folder = toDirectory(line, out);
         if (folder == null) {
           return null;
         }
@@ -126,8 +187,104 @@ public class Config {
         continue;
       }
 
-      // All other lines are source files and can be relative to the last defined folder
-      File file = toFile(folder, line);
+      // Lines starting with "include:" are globs of source files to translate from folders
+      if (line.startsWith("include:")) {
+        context.addSourceInclude(line.substring(8).trim());
+        continue;
+      }
+
+      // Lines starting with "exclude:" are globs of source files and folders to skip
+      if (line.startsWith("exclude:")) {
+        context.addSourceExclude(line.substring(8).trim());
+        continue;
+      }
+
+      // Line starting with "cache:" is folder to cache translated units in
+      if (line.startsWith("cache:")) {
+        line = line.substring(6).trim();
+        File cacheFolder = toDirectory(line, out);
+        if (cacheFolder == null) {
+          return null;
+        }
+        context.setCacheFolder(cacheFolder);
+        continue;
+      }
+
+      // Line starting with "parse:" is parsing mode, "batch" or "file"
+      if (line.startsWith("parse:")) {
+        line = line.substring(6).trim();
+        if (!line.equals("batch") && !line.equals("file")) {
+          out.println("Expected 'batch' or 'file' parsing mode: " + line);
+          return null;
+        }
+        context.setBatchParsing(line.equals("batch"));
+        continue;
+      }
+
+      // Line starting with "arrays:" is translation of primitive arrays, "list" or "typed" data
+      if (line.startsWith("arrays:")) {
+        line = line.substring(7).trim();
+        if (!line.equals("list") && !line.equals("typed")) {
+          out.println("Expected 'list' or 'typed' arrays translation: " + line);
+          return null;
+        }
+        context.setTypedData(line.equals("typed"));
+        continue;
+      }
+
+      // Line starting with "threads:" is number of threads to translate source files
+      if (line.startsWith("threads:")) {
+        line = line.substring(8).trim();
+        int threads;
+        try {
+          threads = Integer.parseInt(line);
+        } catch (NumberFormatException e) {
+          threads = 0;
+        }
+        if (threads < 1) {
+          out.println("Expected positive number of threads: " + line);
+          return null;
+        }
+        context.setParallelism(threads);
+        continue;
+      }
+
+      // Line starting with "rename:" is signature (or pattern) and new name
+      if (line.startsWith("rename:")) {
+        line = line.substring(7).trim();
+        String[] parts = StringUtils.split(line);
+        if (parts.length != 2) {
+          out.println("Expected signature and new name: " + line);
+          return null;
+        }
+        context.addRename(parts[0], parts[1]);
+        continue;
+      }
+
+      // Line starting with "renameTable:" is file with signatures (or patterns) and new names
+      if (line.startsWith("renameTable:")) {
+        line = line.substring(12).trim();
+        File renameTable = toFile(null, line, out);
+        if (renameTable == null) {
+          return null;
+        }
+        context.addRenames(renameTable);
+        continue;
+      }
+
+      // All other lines are source files (or folders with source files to find using "include:"
+      // and "exclude:" globs) and can be relative to the last defined folder
+      {
+        File filesFolder = new File(line);
+        if (!filesFolder.isAbsolute() && folder != null) {
+          filesFolder = new File(folder, line);
+        }
+        if (filesFolder.isDirectory()) {
+          context.addSourceFiles(filesFolder);
+          continue;
+        }
+      }
+      File file = toFile(folder, line, out);
       if (file == null) {
         return null;
       }
@@ -136,26 +293,28 @@ public class Config {
     return config;
   }
 
-  private static void printHelp() {
-    printUsage();
+  private static void printHelp(PrintStream out) {
+    printUsage(out);
   }
 
-  private static void printUsage() {
-    System.out.println("Usage: java2dart <source-folder> <file> (<file)*");
-    System.out.println("   or: java2dart <config-file>.j2d");
+  private static void printUsage(PrintStream out) {
+    out.println("Usage: java2dart <source-folder> <file> (<file)*");
+    out.println("   or: java2dart <config-file>.j2d");
+    out.println("   or: java2dart server <port>");
+    out.println("Option --stats <json-file> before arguments writes translation statistics");
   }
 
-  private static File toDirectory(String path) {
+  private static File toDirectory(String path, PrintStream out) {
     File directory = new File(path);
     if (directory.isDirectory()) {
       return directory;
     }
-    System.out.println("Expected existing directory: " + path);
-    printUsage();
+    out.println("Expected existing directory: " + path);
+    printUsage(out);
     return null;
   }
 
-  private static File toFile(File folder, String path) {
+  private static File toFile(File folder, String path, PrintStream out) {
     File file = new File(path);
     if (!file.isAbsolute() && folder != null) {
       file = new File(folder, path);
@@ -163,15 +322,18 @@ public class Config {
     if (file.isFile()) {
       return file;
     }
-    System.out.println("Expected existing file: " + path);
+    out.println("Expected existing file: " + path);
     if (!new File(path).isAbsolute() && folder != null) {
-      System.out.println("  in: " + folder);
+      out.println("  in: " + folder);
     }
-    printUsage();
+    printUsage(out);
     return null;
   }
 
   private File outputFile;
+  private File outputFolder;
+  private File statsFile;
+  private boolean writeChangedOnly;
 
   private final Context context;
 
@@ -187,7 +349,43 @@ public class Config {
     return outputFile;
   }
 
+  /**
+   * @return the folder to write separate Dart file for each source file, may be <code>null</code>
+   *         if single output is used.
+   */
+  public File getOutputFolder() {
+    return outputFolder;
+  }
+
+  /**
+   * @return the JSON file to write {@link TranslationStats} into, may be <code>null</code> if
+   *         statistics should not be collected.
+   */
+  public File getStatsFile() {
+    return statsFile;
+  }
+
+  /**
+   * @return <code>true</code> if output files should be written only if their content is changed,
+   *         and outputs of deleted Java sources should be deleted.
+   */
+  public boolean isWriteChangedOnly() {
+    return writeChangedOnly;
+  }
+
   private void setOutput(File file) {
     this.outputFile = file;
   }
+
+  private void setOutputFolder(File folder) {
+    this.outputFolder = folder;
+  }
+
+  private void setStatsFile(File statsFile) {
+    this.statsFile = statsFile;
+  }
+
+  private void setWriteChangedOnly(boolean writeChangedOnly) {
+    this.writeChangedOnly = writeChangedOnly;
+  }
 }
@@ -18,56 +18,139 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.google.common.io.Files;
-import com.google.dart.engine.ast.ClassDeclaration;
-import com.google.dart.engine.ast.ClassMember;
+import com.google.dart.engine.ast.ASTNode;
+import com.google.dart.engine.ast.Comment;
 import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.ast.CompilationUnitMember;
-import com.google.dart.engine.ast.FieldDeclaration;
-import com.google.dart.engine.ast.Identifier;
-import com.google.dart.engine.ast.MethodDeclaration;
+import com.google.dart.engine.ast.Directive;
+import com.google.dart.engine.ast.ImportDirective;
 import com.google.dart.engine.ast.SimpleIdentifier;
-import com.google.dart.engine.ast.VariableDeclaration;
+import com.google.dart.engine.ast.SimpleStringLiteral;
+import com.google.dart.engine.ast.StringLiteral;
 import com.google.dart.engine.ast.visitor.RecursiveASTVisitor;
 import com.google.dart.engine.scanner.StringToken;
 import com.google.dart.engine.scanner.TokenType;
+import com.google.dart.java2dart.util.ExecutionUtils;
 import com.google.dart.java2dart.util.JavaUtils;
+import com.google.dart.java2dart.util.SignatureTable;
+import com.google.dart.java2dart.util.SourceFinder;
+import com.google.dart.java2dart.util.SourceReader;
 
 import org.apache.commons.io.Charsets;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Context information for Java to Dart translation.
  */
 public class Context {
-  private static final String[] JAVA_EXTENSION = {"java"};
+  /**
+   * Visitor to collect {@link SimpleIdentifier}s in order of visiting.
+   */
+  private static class IdentifierCollector extends RecursiveASTVisitor<Void> {
+    private final List<SimpleIdentifier> identifiers = Lists.newArrayList();
+
+    @Override
+    public Void visitComment(Comment node) {
+      return null;
+    }
+
+    @Override
+    public Void visitSimpleIdentifier(SimpleIdentifier node) {
+      identifiers.add(node);
+      return null;
+    }
+  }
+
+  /**
+   * @return the {@link Directive}s of the given Dart units, each library imported only once.
+   */
+  static List<Directive> getDirectives(Collection<CompilationUnit> units) {
+    List<Directive> directives = Lists.newArrayList();
+    Set<String> importUris = Sets.newHashSet();
+    for (CompilationUnit unit : units) {
+      for (Directive directive : unit.getDirectives()) {
+        if (directive instanceof ImportDirective) {
+          StringLiteral uri = ((ImportDirective) directive).getLibraryUri();
+          if (uri instanceof SimpleStringLiteral
+              && !importUris.add(((SimpleStringLiteral) uri).getValue())) {
+            continue;
+          }
+        }
+        directives.add(directive);
+      }
+    }
+    return directives;
+  }
+
+  /**
+   * @return the {@link SimpleIdentifier}s of the given {@link ASTNode}, not in comments.
+   */
+  static List<SimpleIdentifier> getIdentifiers(ASTNode node) {
+    IdentifierCollector collector = new IdentifierCollector();
+    node.accept(collector);
+    return collector.identifiers;
+  }
 
   private final List<File> sourceFolders = Lists.newArrayList();
   private final List<File> sourceFiles = Lists.newArrayList();
-  private final Map<String, String> renameMap = Maps.newHashMap();
+  private final List<File> sourceFilesFolders = Lists.newArrayList();
+  private final List<String> sourceIncludes = Lists.newArrayList();
+  private final List<String> sourceExcludes = Lists.newArrayList();
+  private final RenameTable renames = new RenameTable();
 
   private final Map<File, CompilationUnit> dartUnits = Maps.newLinkedHashMap();
-  private final Map<SimpleIdentifier, String> identifierToBinding = Maps.newHashMap();
-  private final Map<String, List<SimpleIdentifier>> bindingToIdentifiers = Maps.newHashMap();
+  private final SignatureTable signatures = new SignatureTable();
+  private final Map<SimpleIdentifier, ReferenceList> identifierToBinding = Maps
+      .newIdentityHashMap();
+  private final List<ReferenceList> bindingToIdentifiers = Lists.newArrayList();
+  private final Map<ReferenceList, String> overriddenSignatures = Maps.newIdentityHashMap();
+  private final Map<org.eclipse.jdt.core.dom.IBinding, ReferenceList> bindingCache = Maps
+      .newIdentityHashMap();
+  private int bindingCacheHitCount;
+  private int bindingCacheMissCount;
+
+  private TranslationCache cache;
+  private boolean batchParsing;
+  private int parallelism = 1;
+  private long parseTime;
+  private final SourceReader sourceReader = new SourceReader();
+  private long sourceBytes;
+  private long decodeTime;
+  private TranslationStats stats;
+  private boolean typedData;
 
   /**
    * Specifies that field with given signature should be renamed before normalizing member names.
+   * Signature may be a pattern with <code>*</code> wildcards, see {@link RenameTable}.
    */
   public void addRename(String signature, String newName) {
-    renameMap.put(signature, newName);
+    renames.add(signature, newName);
+  }
+
+  /**
+   * Specifies renames from the given table file, each line is signature (or pattern) and new name.
+   */
+  public void addRenames(File file) throws IOException {
+    renames.addAll(file);
   }
 
   /**
@@ -81,14 +164,30 @@ public class Context {
   }
 
   /**
-   * Specifies that all files in given folder should be translated.
+   * Specifies that source files matching given glob should not be translated, see
+   * {@link SourceFinder}.
+   */
+  public void addSourceExclude(String glob) {
+    sourceExcludes.add(glob);
+  }
+
+  /**
+   * Specifies that all files in given folder should be translated. Files are found during
+   * translation, so include and exclude globs may be specified later.
    */
   public void addSourceFiles(File folder) {
     Assert.isLegal(folder.exists(), "Folder '" + folder + "' does not exist.");
     Assert.isLegal(folder.isDirectory(), "Folder '" + folder + "' is not a folder.");
     folder = folder.getAbsoluteFile();
-    Collection<File> folderFiles = FileUtils.listFiles(folder, JAVA_EXTENSION, true);
-    sourceFiles.addAll(folderFiles);
+    sourceFilesFolders.add(folder);
+  }
+
+  /**
+   * Specifies that only source files matching given glob (or any other include glob) should be
+   * translated from folders, see {@link SourceFinder}.
+   */
+  public void addSourceInclude(String glob) {
+    sourceIncludes.add(glob);
   }
 
   /**
@@ -101,41 +200,227 @@ public class Context {
     sourceFolders.add(folder);
   }
 
+  /**
+   * @return the number of references to Java bindings for which signature was already known in the
+   *         current parse batch.
+   */
+  public int getBindingCacheHitCount() {
+    return bindingCacheHitCount;
+  }
+
+  /**
+   * @return the number of references to Java bindings for which signature was computed.
+   */
+  public int getBindingCacheMissCount() {
+    return bindingCacheMissCount;
+  }
+
+  /**
+   * @return the time in milliseconds spent to decode Java source files during the last
+   *         {@link #translate()}, included into {@link #getParseTime()}.
+   */
+  public long getDecodeTime() {
+    return decodeTime / 1000000L;
+  }
+
+  /**
+   * @return the path of the given source file relative to the source folder it belongs to, or just
+   *         its name if it is not in any source folder.
+   */
+  public String getRelativePath(File file) {
+    String path = file.getAbsolutePath();
+    for (File sourceFolder : sourceFolders) {
+      String folderPath = sourceFolder.getAbsolutePath() + File.separator;
+      if (path.startsWith(folderPath)) {
+        return path.substring(folderPath.length());
+      }
+    }
+    return file.getName();
+  }
+
+  /**
+   * @return the wall time in milliseconds spent in JDT parsing and binding resolution during the
+   *         last {@link #translate()}.
+   */
+  public long getParseTime() {
+    return parseTime / 1000000L;
+  }
+
+  /**
+   * @return the number of bytes of Java source files read during the last {@link #translate()}.
+   */
+  public long getSourceBytes() {
+    return sourceBytes;
+  }
+
+  /**
+   * Specifies if all {@link #sourceFiles} should be parsed using single
+   * {@link ASTParser#createASTs} call, so that JDT builds its name environment and resolves shared
+   * types only once. By default each file is parsed separately.
+   */
+  public void setBatchParsing(boolean batchParsing) {
+    this.batchParsing = batchParsing;
+  }
+
+  /**
+   * Specifies the folder to keep translated units in. Units of source files with the same content
+   * as in previous translation are loaded from this folder instead of parsing and translating them.
+   * Units are translated again if source files of the types they reference are changed, or if
+   * source folders or Java runtime are changed.
+   */
+  public void setCacheFolder(File folder) {
+    Assert.isLegal(folder.isDirectory(), "Folder '" + folder + "' is not a folder.");
+    cache = new TranslationCache(folder.getAbsoluteFile());
+  }
+
+  /**
+   * Specifies the number of threads used to parse and translate {@link #sourceFiles}. Each unit is
+   * translated with its own reference index, indexes are merged in order of source files, so result
+   * does not depend on the number of threads. Ignored if batch parsing is enabled.
+   */
+  public void setParallelism(int parallelism) {
+    Assert.isLegal(parallelism > 0, "Parallelism should be positive: " + parallelism);
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Specifies {@link TranslationStats} to collect phase timings and counters into, may be
+   * <code>null</code> if statistics should not be collected.
+   */
+  public void setStats(TranslationStats stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * Specifies if Java arrays of primitive types should be translated into Dart typed data lists,
+   * such as <code>Int32List</code> and <code>Float64List</code>, instead of generic
+   * <code>List</code>. By default generic <code>List</code> is used.
+   */
+  public void setTypedData(boolean typedData) {
+    this.typedData = typedData;
+  }
+
+  /**
+   * Translates all source files into single Dart {@link CompilationUnit}.
+   */
   public CompilationUnit translate() throws Exception {
-    // sort source files
-    Collections.sort(sourceFiles);
+    translateUnits();
+    // build single Dart unit, import each library once
+    List<Directive> directives = getDirectives(dartUnits.values());
+    List<CompilationUnitMember> declarations = Lists.newArrayList();
+    for (CompilationUnit unit : dartUnits.values()) {
+      declarations.addAll(unit.getDeclarations());
+    }
+    return new CompilationUnit(null, null, directives, declarations, null);
+  }
+
+  /**
+   * Translates all source files, each into separate Dart {@link CompilationUnit}. Configured
+   * renames and unique names are applied to all units, so they can be written separately.
+   * 
+   * @return the {@link Map} of Dart units, in order of sorted source files.
+   */
+  public Map<File, CompilationUnit> translateUnits() throws Exception {
+    long wallStart = System.nanoTime();
+    // find and sort source files
+    long findStart = System.nanoTime();
+    findSourceFiles();
+    addPhaseTime("find", findStart);
     // perform syntax translation
     translateSyntax();
 //    System.out.println(dartUnits);
 //    System.out.println(identifierToBinding);
 //    System.out.println(bindingToIdentifiers);
-    // perform configured renames
-    for (Entry<String, String> renameEntry : renameMap.entrySet()) {
-      String signature = renameEntry.getKey();
-      List<SimpleIdentifier> identifiers = bindingToIdentifiers.remove(signature);
-      if (identifiers != null) {
-        String newName = renameEntry.getValue();
-        String newSignature = JavaUtils.getRenamedJdtSignature(signature, newName);
-        Assert.isLegal(!bindingToIdentifiers.containsKey(newSignature), "Signature '"
-            + newSignature + "' is already used.");
-        bindingToIdentifiers.put(newSignature, identifiers);
-        for (SimpleIdentifier identifier : identifiers) {
-          identifier.setToken(new StringToken(TokenType.IDENTIFIER, newName, 0));
-          identifierToBinding.remove(identifier);
-          identifierToBinding.put(identifier, newSignature);
+    // perform configured renames, single pass over bindings
+    long renameStart = System.nanoTime();
+    int renameCount = 0;
+    if (!renames.isEmpty()) {
+      for (int id = 0; id < signatures.size(); id++) {
+        String signature = signatures.get(id);
+        String newName = renames.getNewName(signature);
+        if (newName != null) {
+          String newSignature = JavaUtils.getRenamedJdtSignature(signature, newName);
+          if (!newSignature.equals(signature)) {
+            signatures.rename(id, newSignature);
+            setIdentifiersName(bindingToIdentifiers.get(id), newName);
+            renameCount++;
+          }
         }
       }
     }
+    addPhaseTime("rename", renameStart);
+    // collapse trivial getters of final fields
+    long gettersStart = System.nanoTime();
+    int collapsedGetterCount = new GetterInliner(this).inline(dartUnits.values());
+    addPhaseTime("getters", gettersStart);
     // ensure unique names
-    for (CompilationUnit unit : dartUnits.values()) {
-      ensureUniqueClassMemberNames(unit);
+    long uniqueStart = System.nanoTime();
+    int uniqueRenameCount = new ClassMemberRenamer(this).rename(dartUnits.values());
+    addPhaseTime("unique names", uniqueStart);
+    // remember counters
+    if (stats != null) {
+      stats.addCount("source bytes", sourceBytes);
+      stats.addCount("references", identifierToBinding.size());
+      stats.addCount("bindings", signatures.size());
+      stats.addCount("binding signatures computed", bindingCacheMissCount);
+      stats.addCount("binding signatures reused", bindingCacheHitCount);
+      stats.addCount("configured renames", renameCount);
+      stats.addCount("collapsed getters", collapsedGetterCount);
+      stats.addCount("unique name renames", uniqueRenameCount);
+      stats.addWallTime(System.nanoTime() - wallStart);
     }
-    // build single Dart unit
-    List<CompilationUnitMember> declarations = Lists.newArrayList();
-    for (CompilationUnit unit : dartUnits.values()) {
-      declarations.addAll(unit.getDeclarations());
+    // done
+    return Collections.unmodifiableMap(dartUnits);
+  }
+
+  /**
+   * Counts the given Java node as translated, if statistics are collected.
+   */
+  void countNode(org.eclipse.jdt.core.dom.ASTNode node) {
+    if (stats != null) {
+      stats.addNode(node.getNodeType());
     }
-    return new CompilationUnit(null, null, null, declarations, null);
+  }
+
+  /**
+   * @return the signature of the top-most method which is overridden by the method referenced by
+   *         the given {@link SimpleIdentifier}, may be <code>null</code> if it does not override.
+   */
+  String getOverriddenSignature(SimpleIdentifier identifier) {
+    ReferenceList references = identifierToBinding.get(identifier);
+    return references != null ? overriddenSignatures.get(references) : null;
+  }
+
+  /**
+   * @return the signature of the Java binding referenced by the given {@link SimpleIdentifier}, may
+   *         be <code>null</code>.
+   */
+  String getReferenceSignature(SimpleIdentifier identifier) {
+    ReferenceList references = identifierToBinding.get(identifier);
+    return references != null ? signatures.get(references.getId()) : null;
+  }
+
+  /**
+   * @return the source folders, roots of Java packages hierarchy.
+   */
+  List<File> getSourceFolders() {
+    return sourceFolders;
+  }
+
+  /**
+   * @return the {@link ReferenceList} of the Java binding referenced by the given
+   *         {@link SimpleIdentifier}, may be <code>null</code>.
+   */
+  ReferenceList getReferences(SimpleIdentifier identifier) {
+    return identifierToBinding.get(identifier);
+  }
+
+  /**
+   * @return <code>true</code> if Java arrays of primitive types should be translated into Dart
+   *         typed data lists.
+   */
+  boolean isTypedData() {
+    return typedData;
   }
 
   /**
@@ -143,93 +428,85 @@ public class Context {
    */
   void putReference(org.eclipse.jdt.core.dom.IBinding binding, SimpleIdentifier identifier) {
     if (binding != null) {
-      String signature = binding.getKey();
-      signature = JavaUtils.getShortJdtSignature(signature);
-      // remember binding for reference
-      identifierToBinding.put(identifier, signature);
-      // add reference to binding
-      List<SimpleIdentifier> names = bindingToIdentifiers.get(signature);
-      if (names == null) {
-        names = Lists.newLinkedList();
-        bindingToIdentifiers.put(signature, names);
+      // members of parameterized types are references to the generic declarations
+      if (binding instanceof org.eclipse.jdt.core.dom.IMethodBinding) {
+        binding = ((org.eclipse.jdt.core.dom.IMethodBinding) binding).getMethodDeclaration();
       }
-      names.add(identifier);
+      if (binding instanceof org.eclipse.jdt.core.dom.IVariableBinding) {
+        binding = ((org.eclipse.jdt.core.dom.IVariableBinding) binding).getVariableDeclaration();
+      }
+      // JDT bindings are unique in a parse batch, so computed signature can be reused
+      ReferenceList references = bindingCache.get(binding);
+      if (references != null) {
+        bindingCacheHitCount++;
+      } else {
+        bindingCacheMissCount++;
+        String signature = binding.getKey();
+        signature = JavaUtils.getShortJdtSignature(signature);
+        references = getReferences(signatures.intern(signature));
+        bindingCache.put(binding, references);
+      }
+      putReference(references, identifier);
     }
   }
 
-  private void ensureUniqueClassMemberNames(CompilationUnit unit) {
-    unit.accept(new RecursiveASTVisitor<Void>() {
-      private final Set<String> usedNames = Sets.newHashSet();
+  /**
+   * Remembers that "identifier" is reference to the Java binding with the given signature.
+   */
+  void putReference(String signature, SimpleIdentifier identifier) {
+    putReference(getReferences(signatures.intern(signature)), identifier);
+  }
 
-      @Override
-      public Void visitClassDeclaration(ClassDeclaration node) {
-        usedNames.clear();
-        // ensure unique method names (and prefer to keep method name over field name)
-        for (ClassMember member : node.getMembers()) {
-          if (member instanceof MethodDeclaration) {
-            MethodDeclaration methodDeclaration = (MethodDeclaration) member;
-            ensureUniqueName(methodDeclaration.getName());
-          }
-        }
-        // ensure unique field names (if name is already used be method)
-        for (ClassMember member : node.getMembers()) {
-          if (member instanceof FieldDeclaration) {
-            FieldDeclaration fieldDeclaration = (FieldDeclaration) member;
-            for (VariableDeclaration field : fieldDeclaration.getFields().getVariables()) {
-              ensureUniqueName(field.getName());
-            }
-          }
-        }
-        // no recursion
-        return null;
-      }
+  /**
+   * Remembers that the method referenced by the given {@link SimpleIdentifier} overrides the method
+   * with the given signature, declared in the top-most super type.
+   */
+  void putOverriddenSignature(SimpleIdentifier identifier, String signature) {
+    ReferenceList references = identifierToBinding.get(identifier);
+    if (references != null) {
+      overriddenSignatures.put(references, signature);
+    }
+  }
 
-      private void ensureUniqueName(Identifier declarationName) {
-        if (declarationName instanceof SimpleIdentifier) {
-          SimpleIdentifier declarationIdentifier = (SimpleIdentifier) declarationName;
-          String name = declarationIdentifier.getName();
-          if (usedNames.contains(name)) {
-            // generate unique name
-            String newName;
-            {
-              int index = 2;
-              while (true) {
-                newName = name + index;
-                if (!usedNames.contains(newName)) {
-                  break;
-                }
-                index++;
-              }
-            }
-            // move identifiers to the new signature
-            String signature = identifierToBinding.get(declarationIdentifier);
-            String newSignature = JavaUtils.getRenamedJdtSignature(signature, newName);
-            List<SimpleIdentifier> identifiers = bindingToIdentifiers.remove(signature);
-            bindingToIdentifiers.put(newSignature, identifiers);
-            // update identifiers to the new name
-            for (SimpleIdentifier identifier : identifiers) {
-              identifier.setToken(new StringToken(TokenType.IDENTIFIER, newName, 0));
-              identifierToBinding.remove(identifier);
-              identifierToBinding.put(identifier, newSignature);
-            }
-            // remember new name
-            name = newName;
-          }
-          // remember that name is used
-          usedNames.add(name);
-        }
+  /**
+   * Forgets references of the {@link SimpleIdentifier}s in the given {@link ASTNode}, which was
+   * replaced in the Dart AST.
+   */
+  void removeReferences(ASTNode node) {
+    for (SimpleIdentifier identifier : getIdentifiers(node)) {
+      ReferenceList references = identifierToBinding.remove(identifier);
+      if (references != null) {
+        references.remove(identifier);
       }
-    });
+    }
   }
 
   /**
-   * @return the Java AST of the given Java {@link File} in context of {@link #sourceFolders}.
+   * Renames the Java binding referenced by the given {@link SimpleIdentifier} and all its
+   * references.
    */
-  private org.eclipse.jdt.core.dom.CompilationUnit parseJavaFile(File javaFile) throws Exception {
-    String javaPath = javaFile.getAbsolutePath();
-    String javaName = StringUtils.substringAfterLast(javaPath, "/");
-    String javaSource = Files.toString(javaFile, Charsets.UTF_8);
-    // prepare Java parser
+  void renameReferences(SimpleIdentifier identifier, String newName) {
+    ReferenceList references = identifierToBinding.get(identifier);
+    int id = references.getId();
+    String signature = signatures.get(id);
+    signatures.rename(id, JavaUtils.getRenamedJdtSignature(signature, newName));
+    setIdentifiersName(references, newName);
+  }
+
+  /**
+   * Adds time since the given start to the given phase, if statistics are collected.
+   */
+  private void addPhaseTime(String phase, long startNanos) {
+    if (stats != null) {
+      stats.addTime(phase, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * @return the {@link ASTParser} configured to parse Java files in context of
+   *         {@link #sourceFolders}.
+   */
+  private ASTParser createJavaParser() {
     ASTParser parser = ASTParser.newParser(AST.JLS4);
     {
       String[] sourceEntries = new String[sourceFolders.size()];
@@ -244,20 +521,302 @@ public class Context {
         JavaCore.VERSION_1_5,
         JavaCore.COMPILER_DOC_COMMENT_SUPPORT,
         JavaCore.ENABLED));
+    return parser;
+  }
+
+  /**
+   * Adds source files from {@link #sourceFilesFolders} to {@link #sourceFiles}, ensures that
+   * {@link #sourceFiles} are sorted.
+   */
+  private void findSourceFiles() throws Exception {
+    if (!sourceFilesFolders.isEmpty()) {
+      SourceFinder finder = new SourceFinder(parallelism);
+      for (String glob : sourceIncludes) {
+        finder.addInclude(glob);
+      }
+      for (String glob : sourceExcludes) {
+        finder.addExclude(glob);
+      }
+      for (File folder : sourceFilesFolders) {
+        sourceFiles.addAll(finder.find(folder));
+      }
+      sourceFilesFolders.clear();
+    }
+    // files of single folder are already sorted
+    for (int i = 1; i < sourceFiles.size(); i++) {
+      if (sourceFiles.get(i - 1).compareTo(sourceFiles.get(i)) > 0) {
+        Collections.sort(sourceFiles);
+        break;
+      }
+    }
+  }
+
+  /**
+   * @return the {@link ReferenceList} of the binding with the given signature identifier, created
+   *         if the identifier is new.
+   */
+  private ReferenceList getReferences(int id) {
+    if (id == bindingToIdentifiers.size()) {
+      bindingToIdentifiers.add(new ReferenceList(id));
+    }
+    return bindingToIdentifiers.get(id);
+  }
+
+  /**
+   * Appends references from the given unit {@link Context} to the references of this
+   * {@link Context}, in order of identifiers in the unit, so that order does not depend on the
+   * order of translation.
+   */
+  private void mergeReferences(Context unitContext) {
+    ReferenceList[] mergedReferences = new ReferenceList[unitContext.signatures.size()];
+    for (CompilationUnit unit : unitContext.dartUnits.values()) {
+      for (SimpleIdentifier identifier : getIdentifiers(unit)) {
+        ReferenceList unitReferences = unitContext.identifierToBinding.get(identifier);
+        if (unitReferences == null) {
+          continue;
+        }
+        int unitId = unitReferences.getId();
+        ReferenceList references = mergedReferences[unitId];
+        if (references == null) {
+          String signature = unitContext.signatures.get(unitId);
+          references = getReferences(signatures.intern(signature));
+          mergedReferences[unitId] = references;
+          String overriddenSignature = unitContext.overriddenSignatures.get(unitReferences);
+          if (overriddenSignature != null) {
+            overriddenSignatures.put(references, overriddenSignature);
+          }
+        }
+        putReference(references, identifier);
+      }
+    }
+  }
+
+  /**
+   * Appends unit, references and counters of the given unit {@link Context} to this
+   * {@link Context}.
+   */
+  private void mergeUnit(Context unitContext) {
+    parseTime += unitContext.parseTime;
+    sourceBytes += unitContext.sourceBytes;
+    decodeTime += unitContext.decodeTime;
+    bindingCacheHitCount += unitContext.bindingCacheHitCount;
+    bindingCacheMissCount += unitContext.bindingCacheMissCount;
+    if (stats != null) {
+      stats.addAll(unitContext.stats);
+    }
+    dartUnits.putAll(unitContext.dartUnits);
+    mergeReferences(unitContext);
+  }
+
+  /**
+   * @return the new {@link Context} to translate single unit, with options of this {@link Context}.
+   */
+  private Context newUnitContext() {
+    Context unitContext = new Context();
+    unitContext.typedData = typedData;
+    if (stats != null) {
+      unitContext.stats = new TranslationStats();
+    }
+    return unitContext;
+  }
+
+  /**
+   * @return the Java AST of the given Java {@link File} in context of {@link #sourceFolders}, read
+   *         using the given {@link SourceReader}.
+   */
+  private org.eclipse.jdt.core.dom.CompilationUnit parseJavaFile(File javaFile, SourceReader reader)
+      throws Exception {
+    String javaPath = javaFile.getAbsolutePath();
+    String javaName = StringUtils.substringAfterLast(javaPath, "/");
+    char[] javaSource = reader.read(javaFile);
+    // prepare Java parser
+    ASTParser parser = createJavaParser();
     // do parse
     parser.setUnitName(javaName);
-    parser.setSource(javaSource.toCharArray());
+    parser.setSource(javaSource);
     return (org.eclipse.jdt.core.dom.CompilationUnit) parser.createAST(null);
   }
 
+  /**
+   * Remembers that "identifier" is reference to the binding of the given {@link ReferenceList}.
+   */
+  private void putReference(ReferenceList references, SimpleIdentifier identifier) {
+    // remember binding for reference
+    identifierToBinding.put(identifier, references);
+    // add reference to binding
+    references.add(identifier);
+  }
+
+  /**
+   * Sets the given name to all {@link SimpleIdentifier}s of the given {@link ReferenceList}.
+   */
+  private void setIdentifiersName(ReferenceList references, String newName) {
+    for (int i = 0; i < references.size(); i++) {
+      references.get(i).setToken(new StringToken(TokenType.IDENTIFIER, newName, 0));
+    }
+  }
+
   /**
    * Translate {@link #sourceFiles} into Dart AST in {@link #dartUnits}.
+   * <p>
+   * Each unit, cached or translated, has its own {@link Context}. Units are merged in order of
+   * source files, so that references are registered in the same order, with or without cache.
    */
   private void translateSyntax() throws Exception {
+    parseTime = 0;
+    sourceBytes = 0;
+    decodeTime = 0;
+    bindingCacheHitCount = 0;
+    bindingCacheMissCount = 0;
+    // load cached units
+    long cacheStart = System.nanoTime();
+    List<File> javaFiles = sourceFiles;
+    Map<File, Context> unitContexts = Maps.newHashMap();
+    if (cache != null) {
+      javaFiles = Lists.newArrayList();
+      for (File javaFile : sourceFiles) {
+        Context unitContext = newUnitContext();
+        CompilationUnit dartUnit = cache.load(this, javaFile, unitContext);
+        if (dartUnit != null) {
+          unitContext.dartUnits.put(javaFile, dartUnit);
+          unitContexts.put(javaFile, unitContext);
+        } else {
+          javaFiles.add(javaFile);
+        }
+      }
+      addPhaseTime("cache", cacheStart);
+    }
+    if (stats != null) {
+      stats.addCount("files", sourceFiles.size());
+      stats.addCount("cached files", unitContexts.size());
+    }
+    // translate other units, sequentially translated units are merged as soon as translated
+    if (batchParsing) {
+      translateSyntaxBatch(javaFiles, unitContexts);
+    } else if (parallelism > 1) {
+      translateSyntaxParallel(javaFiles, unitContexts);
+    }
     for (File javaFile : sourceFiles) {
-      org.eclipse.jdt.core.dom.CompilationUnit javaUnit = parseJavaFile(javaFile);
-      CompilationUnit dartUnit = SyntaxTranslator.translate(this, javaUnit);
-      dartUnits.put(javaFile, dartUnit);
+      Context unitContext = unitContexts.remove(javaFile);
+      if (unitContext == null) {
+        unitContext = translateUnit(javaFile, sourceReader);
+      }
+      mergeUnit(unitContext);
+    }
+    // update cache
+    if (cache != null) {
+      cacheStart = System.nanoTime();
+      for (File javaFile : javaFiles) {
+        cache.store(this, javaFile, dartUnits.get(javaFile));
+      }
+      addPhaseTime("cache", cacheStart);
+    }
+  }
+
+  /**
+   * Translate given Java files into Dart AST in the given unit {@link Context}s, parsing all of
+   * them with single {@link ASTParser}, so that binding resolution is shared between units.
+   */
+  private void translateSyntaxBatch(List<File> javaFiles, final Map<File, Context> unitContexts)
+      throws Exception {
+    String[] javaPaths = new String[javaFiles.size()];
+    String[] encodings = new String[javaFiles.size()];
+    final Map<String, File> pathToFile = Maps.newHashMap();
+    for (int i = 0; i < javaPaths.length; i++) {
+      javaPaths[i] = javaFiles.get(i).getAbsolutePath();
+      encodings[i] = Charsets.UTF_8.name();
+      pathToFile.put(javaPaths[i], javaFiles.get(i));
+    }
+    // parse and translate, each unit is translated as soon as it is resolved
+    final long[] translateTime = {0};
+    long parseStart = System.nanoTime();
+    createJavaParser().createASTs(
+        javaPaths,
+        encodings,
+        ArrayUtils.EMPTY_STRING_ARRAY,
+        new FileASTRequestor() {
+          @Override
+          public void acceptAST(String javaPath, org.eclipse.jdt.core.dom.CompilationUnit javaUnit) {
+            long translateStart = System.nanoTime();
+            File javaFile = pathToFile.get(javaPath);
+            Context unitContext = newUnitContext();
+            CompilationUnit dartUnit = SyntaxTranslator.translate(unitContext, javaUnit);
+            unitContext.dartUnits.put(javaFile, dartUnit);
+            unitContexts.put(javaFile, unitContext);
+            if (cache != null) {
+              cache.putDependencies(Context.this, javaFile, javaUnit);
+            }
+            translateTime[0] += System.nanoTime() - translateStart;
+          }
+        },
+        null);
+    long batchParseTime = System.nanoTime() - parseStart - translateTime[0];
+    parseTime += batchParseTime;
+    if (stats != null) {
+      stats.addTime("parse", batchParseTime);
+      stats.addTime("translate", translateTime[0]);
+    }
+  }
+
+  /**
+   * Translate given Java files into Dart AST in the given unit {@link Context}s, using
+   * {@link #parallelism} threads. In this mode {@link #parseTime} is sum of parse times in all
+   * threads.
+   */
+  private void translateSyntaxParallel(List<File> javaFiles, Map<File, Context> unitContexts)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    // each thread reads sources using its own reader
+    final ThreadLocal<SourceReader> threadReader = new ThreadLocal<SourceReader>() {
+      @Override
+      protected SourceReader initialValue() {
+        return new SourceReader();
+      }
+    };
+    try {
+      // schedule parse and translate, each unit has its own Context to collect references
+      Map<File, Future<Context>> futures = Maps.newLinkedHashMap();
+      for (final File javaFile : javaFiles) {
+        futures.put(javaFile, executor.submit(new Callable<Context>() {
+          @Override
+          public Context call() throws Exception {
+            return translateUnit(javaFile, threadReader.get());
+          }
+        }));
+      }
+      // wait for all units
+      for (Map.Entry<File, Future<Context>> entry : futures.entrySet()) {
+        try {
+          unitContexts.put(entry.getKey(), entry.getValue().get());
+        } catch (ExecutionException e) {
+          throw ExecutionUtils.propagate(e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Parses and translates the given Java file, using the given {@link SourceReader}.
+   * 
+   * @return the new unit {@link Context} with the translated unit and its references.
+   */
+  private Context translateUnit(File javaFile, SourceReader reader) throws Exception {
+    Context unitContext = newUnitContext();
+    long parseStart = System.nanoTime();
+    org.eclipse.jdt.core.dom.CompilationUnit javaUnit = parseJavaFile(javaFile, reader);
+    unitContext.parseTime = System.nanoTime() - parseStart;
+    unitContext.addPhaseTime("parse", parseStart);
+    unitContext.sourceBytes = reader.getBytesRead();
+    unitContext.decodeTime = reader.getDecodeTime();
+    long translateStart = System.nanoTime();
+    CompilationUnit dartUnit = SyntaxTranslator.translate(unitContext, javaUnit);
+    unitContext.addPhaseTime("translate", translateStart);
+    unitContext.dartUnits.put(javaFile, dartUnit);
+    if (cache != null) {
+      cache.putDependencies(this, javaFile, javaUnit);
     }
+    return unitContext;
   }
 }
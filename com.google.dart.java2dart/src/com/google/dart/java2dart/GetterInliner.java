@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.dart.engine.ast.ASTNode;
+import com.google.dart.engine.ast.ArgumentList;
+import com.google.dart.engine.ast.BinaryExpression;
+import com.google.dart.engine.ast.BlockFunctionBody;
+import com.google.dart.engine.ast.ClassDeclaration;
+import com.google.dart.engine.ast.ClassMember;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.CompilationUnitMember;
+import com.google.dart.engine.ast.ConditionalExpression;
+import com.google.dart.engine.ast.Expression;
+import com.google.dart.engine.ast.ExpressionStatement;
+import com.google.dart.engine.ast.ExtendsClause;
+import com.google.dart.engine.ast.FieldDeclaration;
+import com.google.dart.engine.ast.FunctionBody;
+import com.google.dart.engine.ast.Identifier;
+import com.google.dart.engine.ast.IfStatement;
+import com.google.dart.engine.ast.ImplementsClause;
+import com.google.dart.engine.ast.IndexExpression;
+import com.google.dart.engine.ast.MethodDeclaration;
+import com.google.dart.engine.ast.MethodInvocation;
+import com.google.dart.engine.ast.ParenthesizedExpression;
+import com.google.dart.engine.ast.PrefixExpression;
+import com.google.dart.engine.ast.PrefixedIdentifier;
+import com.google.dart.engine.ast.PropertyAccess;
+import com.google.dart.engine.ast.ReturnStatement;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.Statement;
+import com.google.dart.engine.ast.ThisExpression;
+import com.google.dart.engine.ast.TypeName;
+import com.google.dart.engine.ast.VariableDeclaration;
+import com.google.dart.engine.ast.VariableDeclarationList;
+import com.google.dart.engine.ast.WhileStatement;
+import com.google.dart.engine.scanner.Keyword;
+import com.google.dart.engine.scanner.KeywordToken;
+import com.google.dart.engine.scanner.StringToken;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collapses trivial getters of final fields, i.e. removes method
+ * <code>int getFoo() {return foo;}</code> and rewrites its invocations <code>a.getFoo()</code> into
+ * field reads <code>a.foo</code>, so that Dart code does not pay for method call on every access.
+ * <p>
+ * Getter is collapsed only if it is not static, has no parameters, is declared in not generic class
+ * (invocations of generic class methods have different binding signatures), does not override any
+ * method, even of not translated type, such as <code>getMessage()</code> of <code>Exception</code>,
+ * and no other translated class of the same hierarchy declares method with the same name, so it is
+ * not overridden. Invocations are found using references to the binding of the getter. If some
+ * reference cannot be rewritten, the getter is kept, but other invocations still read the field.
+ */
+class GetterInliner {
+  /**
+   * Names of methods without parameters declared in <code>Object</code>, which should stay methods.
+   */
+  private static final Set<String> OBJECT_METHODS = ImmutableSet.of(
+      "clone",
+      "finalize",
+      "getClass",
+      "hashCode",
+      "toString");
+
+  /**
+   * @return <code>true</code> if the given {@link Token} is <code>final</code> keyword.
+   */
+  private static boolean isFinal(Token token) {
+    return token instanceof KeywordToken && ((KeywordToken) token).getKeyword() == Keyword.FINAL;
+  }
+
+  /**
+   * Replaces the given {@link Expression} with the given new one in its parent.
+   * 
+   * @return <code>true</code> if replaced, <code>false</code> if the parent is not supported.
+   */
+  private static boolean replaceExpression(Expression node, Expression newNode) {
+    ASTNode parent = node.getParent();
+    if (parent instanceof ArgumentList) {
+      List<Expression> arguments = ((ArgumentList) parent).getArguments();
+      arguments.set(arguments.indexOf(node), newNode);
+      return true;
+    }
+    if (parent instanceof BinaryExpression) {
+      BinaryExpression binary = (BinaryExpression) parent;
+      if (binary.getLeftOperand() == node) {
+        binary.setLeftOperand(newNode);
+      } else {
+        binary.setRightOperand(newNode);
+      }
+      return true;
+    }
+    if (parent instanceof ConditionalExpression) {
+      ConditionalExpression conditional = (ConditionalExpression) parent;
+      if (conditional.getCondition() == node) {
+        conditional.setCondition(newNode);
+      } else if (conditional.getThenExpression() == node) {
+        conditional.setThenExpression(newNode);
+      } else {
+        conditional.setElseExpression(newNode);
+      }
+      return true;
+    }
+    if (parent instanceof ExpressionStatement) {
+      ((ExpressionStatement) parent).setExpression(newNode);
+      return true;
+    }
+    if (parent instanceof IfStatement) {
+      ((IfStatement) parent).setCondition(newNode);
+      return true;
+    }
+    if (parent instanceof IndexExpression) {
+      IndexExpression index = (IndexExpression) parent;
+      if (index.getArray() == node) {
+        index.setArray(newNode);
+      } else {
+        index.setIndex(newNode);
+      }
+      return true;
+    }
+    if (parent instanceof MethodInvocation) {
+      ((MethodInvocation) parent).setTarget(newNode);
+      return true;
+    }
+    if (parent instanceof ParenthesizedExpression) {
+      ((ParenthesizedExpression) parent).setExpression(newNode);
+      return true;
+    }
+    if (parent instanceof PrefixExpression) {
+      ((PrefixExpression) parent).setOperand(newNode);
+      return true;
+    }
+    if (parent instanceof PropertyAccess) {
+      ((PropertyAccess) parent).setTarget(newNode);
+      return true;
+    }
+    if (parent instanceof ReturnStatement) {
+      ((ReturnStatement) parent).setExpression(newNode);
+      return true;
+    }
+    if (parent instanceof VariableDeclaration) {
+      ((VariableDeclaration) parent).setInitializer(newNode);
+      return true;
+    }
+    if (parent instanceof WhileStatement) {
+      ((WhileStatement) parent).setCondition(newNode);
+      return true;
+    }
+    return false;
+  }
+
+  private final Context context;
+  private final List<ClassDeclaration> classes = Lists.newArrayList();
+  private final Map<String, Integer> classIndices = Maps.newHashMap();
+  private final Map<Integer, Set<Integer>> superIndices = Maps.newHashMap();
+
+  GetterInliner(Context context) {
+    this.context = context;
+  }
+
+  /**
+   * Collapses trivial getters of final fields in the classes of the given units.
+   * 
+   * @return the number of collapsed getters.
+   */
+  int inline(Collection<CompilationUnit> units) {
+    // index classes
+    for (CompilationUnit unit : units) {
+      for (CompilationUnitMember member : unit.getDeclarations()) {
+        if (member instanceof ClassDeclaration) {
+          ClassDeclaration classDeclaration = (ClassDeclaration) member;
+          String signature = getTypeSignature(classDeclaration.getName());
+          if (signature != null) {
+            classIndices.put(signature, classes.size());
+          }
+          classes.add(classDeclaration);
+        }
+      }
+    }
+    // index classes declaring methods with each name
+    Map<String, List<Integer>> nameToClasses = Maps.newHashMap();
+    for (int i = 0; i < classes.size(); i++) {
+      for (ClassMember member : classes.get(i).getMembers()) {
+        if (member instanceof MethodDeclaration) {
+          String name = ((MethodDeclaration) member).getName().getName();
+          List<Integer> nameClasses = nameToClasses.get(name);
+          if (nameClasses == null) {
+            nameClasses = Lists.newArrayList();
+            nameToClasses.put(name, nameClasses);
+          }
+          nameClasses.add(i);
+        }
+      }
+    }
+    // collapse getters
+    int count = 0;
+    for (int i = 0; i < classes.size(); i++) {
+      ClassDeclaration classDeclaration = classes.get(i);
+      if (classDeclaration.getTypeParameters() != null) {
+        continue;
+      }
+      List<ClassMember> members = classDeclaration.getMembers();
+      for (ClassMember member : Lists.newArrayList(members)) {
+        if (member instanceof MethodDeclaration) {
+          MethodDeclaration method = (MethodDeclaration) member;
+          SimpleIdentifier field = getReturnedField(classDeclaration, method);
+          if (field != null && context.getOverriddenSignature(method.getName()) == null
+              && !isHierarchyMethod(i, nameToClasses.get(method.getName().getName()))
+              && rewriteInvocations(method, field)) {
+            members.remove(method);
+            count++;
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Adds index of the given type to the given {@link List}, if it is translated class.
+   */
+  private void addTypeIndex(List<Integer> indices, TypeName type) {
+    String signature = getTypeSignature(type.getName());
+    Integer index = classIndices.get(signature);
+    if (index != null) {
+      indices.add(index);
+    }
+  }
+
+  /**
+   * @return the name of the final instance field of the given class, returned by the given method,
+   *         may be <code>null</code> if the method is not a trivial getter.
+   */
+  private SimpleIdentifier getReturnedField(ClassDeclaration classDeclaration,
+      MethodDeclaration method) {
+    if (method.getModifierKeyword() != null || method.getPropertyKeyword() != null
+        || method.getOperatorKeyword() != null) {
+      return null;
+    }
+    if (!method.getParameters().getParameters().isEmpty()
+        || OBJECT_METHODS.contains(method.getName().getName())
+        || context.getReferenceSignature(method.getName()) == null) {
+      return null;
+    }
+    // body should be single "return field;" statement
+    FunctionBody body = method.getBody();
+    if (!(body instanceof BlockFunctionBody)) {
+      return null;
+    }
+    List<Statement> statements = ((BlockFunctionBody) body).getBlock().getStatements();
+    if (statements.size() != 1 || !(statements.get(0) instanceof ReturnStatement)) {
+      return null;
+    }
+    Expression expression = ((ReturnStatement) statements.get(0)).getExpression();
+    if (expression instanceof PropertyAccess
+        && ((PropertyAccess) expression).getTarget() instanceof ThisExpression) {
+      expression = ((PropertyAccess) expression).getPropertyName();
+    }
+    if (!(expression instanceof SimpleIdentifier)) {
+      return null;
+    }
+    String fieldSignature = context.getReferenceSignature((SimpleIdentifier) expression);
+    if (fieldSignature == null) {
+      return null;
+    }
+    // find final instance field
+    for (ClassMember member : classDeclaration.getMembers()) {
+      if (member instanceof FieldDeclaration) {
+        FieldDeclaration fieldDeclaration = (FieldDeclaration) member;
+        VariableDeclarationList fields = fieldDeclaration.getFields();
+        if (fieldDeclaration.getKeyword() != null || !isFinal(fields.getKeyword())) {
+          continue;
+        }
+        for (VariableDeclaration field : fields.getVariables()) {
+          if (fieldSignature.equals(context.getReferenceSignature(field.getName()))) {
+            return field.getName();
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the indices of all translated super types of the given class.
+   */
+  private Set<Integer> getSuperIndices(int index) {
+    Set<Integer> indices = superIndices.get(index);
+    if (indices == null) {
+      // prevent infinite recursion on invalid code
+      superIndices.put(index, Collections.<Integer> emptySet());
+      List<Integer> directIndices = Lists.newArrayList();
+      ClassDeclaration classDeclaration = classes.get(index);
+      ExtendsClause extendsClause = classDeclaration.getExtendsClause();
+      if (extendsClause != null) {
+        addTypeIndex(directIndices, extendsClause.getSuperclass());
+      }
+      ImplementsClause implementsClause = classDeclaration.getImplementsClause();
+      if (implementsClause != null) {
+        for (TypeName interfaceType : implementsClause.getInterfaces()) {
+          addTypeIndex(directIndices, interfaceType);
+        }
+      }
+      indices = Sets.newHashSet();
+      for (int directIndex : directIndices) {
+        indices.add(directIndex);
+        indices.addAll(getSuperIndices(directIndex));
+      }
+      superIndices.put(index, indices);
+    }
+    return indices;
+  }
+
+  /**
+   * @return the erasure signature of the type referenced by the given {@link Identifier}, may be
+   *         <code>null</code>.
+   */
+  private String getTypeSignature(Identifier name) {
+    if (name instanceof PrefixedIdentifier) {
+      name = ((PrefixedIdentifier) name).getIdentifier();
+    }
+    if (name instanceof SimpleIdentifier) {
+      String signature = context.getReferenceSignature((SimpleIdentifier) name);
+      if (signature != null) {
+        return ClassMemberRenamer.getErasureSignature(signature);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return <code>true</code> if any of the given classes, other than the class with the given
+   *         index, is its super or sub type.
+   */
+  private boolean isHierarchyMethod(int index, List<Integer> nameClasses) {
+    for (int otherIndex : nameClasses) {
+      if (otherIndex == index) {
+        continue;
+      }
+      if (getSuperIndices(index).contains(otherIndex)
+          || getSuperIndices(otherIndex).contains(index)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Rewrites invocations of the given getter into reads of the given field.
+   * 
+   * @return <code>true</code> if all references to the getter were rewritten.
+   */
+  private boolean rewriteInvocations(MethodDeclaration getter, SimpleIdentifier field) {
+    String fieldSignature = context.getReferenceSignature(field);
+    boolean allRewritten = true;
+    ReferenceList references = context.getReferences(getter.getName());
+    for (int i = 0; i < references.size(); i++) {
+      SimpleIdentifier reference = references.get(i);
+      if (reference == getter.getName()) {
+        continue;
+      }
+      ASTNode parent = reference.getParent();
+      if (parent instanceof MethodInvocation
+          && ((MethodInvocation) parent).getMethodName() == reference) {
+        MethodInvocation invocation = (MethodInvocation) parent;
+        Expression target = invocation.getTarget();
+        SimpleIdentifier name = new SimpleIdentifier(new StringToken(
+            TokenType.IDENTIFIER,
+            field.getName(),
+            0));
+        PropertyAccess propertyAccess = new PropertyAccess(
+            null,
+            new Token(TokenType.PERIOD, 0),
+            name);
+        if (replaceExpression(invocation, propertyAccess)) {
+          // unqualified invocation may be shadowed by local variable, so qualify with "this"
+          if (target == null) {
+            target = new ThisExpression(new KeywordToken(Keyword.THIS, 0));
+          }
+          propertyAccess.setTarget(target);
+          context.putReference(fieldSignature, name);
+          continue;
+        }
+      }
+      allRewritten = false;
+    }
+    return allRewritten;
+  }
+}
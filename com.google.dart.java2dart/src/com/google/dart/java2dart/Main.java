@@ -15,42 +15,163 @@
 package com.google.dart.java2dart;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
 import com.google.dart.engine.ast.ASTNode;
 import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.CompilationUnitMember;
+import com.google.dart.engine.ast.Directive;
+import com.google.dart.engine.ast.LibraryDirective;
+import com.google.dart.engine.ast.LibraryIdentifier;
+import com.google.dart.engine.ast.PartDirective;
+import com.google.dart.engine.ast.PartOfDirective;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.SimpleStringLiteral;
+import com.google.dart.engine.scanner.Keyword;
+import com.google.dart.engine.scanner.KeywordToken;
+import com.google.dart.engine.scanner.StringToken;
+import com.google.dart.engine.scanner.TokenType;
 import com.google.dart.engine.utilities.io.PrintStringWriter;
+import com.google.dart.java2dart.util.ChannelWriter;
+import com.google.dart.java2dart.util.OutputUpdater;
 import com.google.dart.java2dart.util.ToFormattedSourceVisitor;
 
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 
-import java.io.FileWriter;
-import java.io.Writer;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 public class Main {
+  /**
+   * Name of the file with hashes of Dart files in the output folder, see {@link OutputUpdater}.
+   */
+  private static final String HASHES_FILE_NAME = ".java2dart.hashes";
+
   public static void main(String[] args) throws Exception {
+    if (args.length == 2 && args[0].equals("server")) {
+      new Server(Integer.parseInt(args[1])).run();
+      return;
+    }
     Config config = Config.from(args);
     if (config == null) {
       System.exit(1);
     }
-    Context context = config.getContext();
 //    String javaSource = Files.toString(file, Charset.forName("UTF-8"));
 //    org.eclipse.jdt.core.dom.CompilationUnit javaUnit = parseJava(javaSource);
 //    Context context = new Context();
 //    CompilationUnit dartUnit = SyntaxTranslator.translate(context, javaUnit);
-    CompilationUnit dartUnit = context.translate();
-    String dartSource = getFormattedSource(dartUnit);
-    if (config.getOutputFile() == null) {
-      System.out.println(dartSource);
-      return;
+    translate(config, System.out);
+  }
+
+  /**
+   * Translates sources specified by the given {@link Config}. Writes Dart source into the output
+   * file, or prints it into the given {@link PrintStream} if no output file is specified.
+   */
+  static void translate(Config config, PrintStream out) throws Exception {
+    Context context = config.getContext();
+    TranslationStats stats = null;
+    if (config.getStatsFile() != null) {
+      stats = new TranslationStats();
+      context.setStats(stats);
     }
-    Writer writer = new FileWriter(config.getOutputFile());
-    try {
-      writer.write(dartSource);
-    } finally {
-      writer.close();
+    OutputUpdater updater = null;
+    if (config.getOutputFolder() != null) {
+      Map<File, CompilationUnit> dartUnits = context.translateUnits();
+      // units are formatted directly into files, so "write" includes formatting
+      long writeStart = System.nanoTime();
+      if (config.isWriteChangedOnly()) {
+        updater = new OutputUpdater(new File(config.getOutputFolder(), HASHES_FILE_NAME));
+      }
+      writeUnits(context, dartUnits, config.getOutputFolder(), updater);
+      addPhaseTime(stats, "write", writeStart);
+      out.println("Wrote " + (dartUnits.size() + 1) + " files into " + config.getOutputFolder());
+    } else {
+      CompilationUnit dartUnit = context.translate();
+      if (config.getOutputFile() == null) {
+        long formatStart = System.nanoTime();
+        String dartSource = getFormattedSource(dartUnit);
+        addPhaseTime(stats, "format", formatStart);
+        out.println(dartSource);
+      } else {
+        // stream into file, memory is bounded by the buffer size
+        long writeStart = System.nanoTime();
+        File outputFile = config.getOutputFile();
+        if (config.isWriteChangedOnly()) {
+          updater = new OutputUpdater(null);
+        }
+        WritableByteChannel channel = openChannel(outputFile, updater);
+        boolean success = false;
+        try {
+          writeUnit(dartUnit, new ChannelWriter(channel), outputFile);
+          if (updater != null) {
+            updater.update(outputFile);
+          }
+          success = true;
+        } finally {
+          if (!success && updater != null) {
+            updater.discard(outputFile);
+          }
+        }
+        addPhaseTime(stats, "write", writeStart);
+        out.println("Wrote " + config.getOutputFile());
+      }
+    }
+    // delete outputs of deleted sources, report skipped writes
+    if (updater != null) {
+      updater.deleteStale();
+      updater.saveHashes();
+      out.println("Skipped writing " + updater.getSkippedCount() + " unchanged files");
+      if (updater.getDeletedCount() != 0) {
+        out.println("Deleted " + updater.getDeletedCount() + " stale files");
+      }
+      if (stats != null) {
+        stats.addCount("written files", updater.getWrittenCount());
+        stats.addCount("skipped writes", updater.getSkippedCount());
+        stats.addCount("deleted files", updater.getDeletedCount());
+      }
+    }
+    // report statistics, don't mix summary with printed Dart source
+    if (stats != null) {
+      if (config.getOutputFolder() != null || config.getOutputFile() != null) {
+        printParseStatistics(context, out);
+        stats.printSummary(out);
+      }
+      stats.writeJson(config.getStatsFile());
+    }
+  }
+
+  private static void addPhaseTime(TranslationStats stats, String phase, long startNanos) {
+    if (stats != null) {
+      // these phases follow translation, in the same thread
+      long nanos = System.nanoTime() - startNanos;
+      stats.addTime(phase, nanos);
+      stats.addWallTime(nanos);
     }
-    System.out.println("Wrote " + config.getOutputFile());
+  }
+
+  /**
+   * @return the name of the library with all units written into the given folder, based on the
+   *         folder name.
+   */
+  private static String getLibraryName(File outputFolder) {
+    String name = outputFolder.getAbsoluteFile().getName().replaceAll("[^A-Za-z0-9_]", "_");
+    if (name.length() == 0 || Character.isDigit(name.charAt(0))) {
+      name = "_" + name;
+    }
+    return name;
   }
 
   /**
@@ -72,4 +193,143 @@ public class Main {
     parser.setSource(source.toCharArray());
     return (org.eclipse.jdt.core.dom.CompilationUnit) parser.createAST(null);
   }
+
+  private static LibraryIdentifier newLibraryIdentifier(String name) {
+    List<SimpleIdentifier> components = Lists.newArrayList();
+    components.add(new SimpleIdentifier(new StringToken(TokenType.IDENTIFIER, name, 0)));
+    return new LibraryIdentifier(components);
+  }
+
+  private static SimpleStringLiteral newStringLiteral(String value) {
+    return new SimpleStringLiteral(new StringToken(TokenType.STRING, "'" + value + "'", 0), value);
+  }
+
+  /**
+   * @return the channel to write the given file, through the given {@link OutputUpdater} if it is
+   *         not <code>null</code>.
+   */
+  private static WritableByteChannel openChannel(File file, OutputUpdater updater)
+      throws IOException {
+    if (updater != null) {
+      return updater.open(file);
+    }
+    return new FileOutputStream(file).getChannel();
+  }
+
+  /**
+   * Prints the parse time, the reuse of binding signatures and the size of read sources during the
+   * last translation.
+   */
+  private static void printParseStatistics(Context context, PrintStream out) {
+    out.println("Parsed in " + context.getParseTime() + " ms");
+    int hitCount = context.getBindingCacheHitCount();
+    int missCount = context.getBindingCacheMissCount();
+    out.println("Binding signatures: " + missCount + " computed, " + hitCount + " reused");
+    out.println("Read " + context.getSourceBytes() + " bytes of Java source, decoded in "
+        + context.getDecodeTime() + " ms");
+  }
+
+  /**
+   * Formats the given Dart unit directly into the given {@link ChannelWriter} of the given file,
+   * without building {@link String}. Closes the writer.
+   */
+  private static void writeUnit(CompilationUnit dartUnit, ChannelWriter channelWriter,
+      File dartFile) throws IOException {
+    PrintWriter writer = new PrintWriter(channelWriter);
+    try {
+      dartUnit.accept(new ToFormattedSourceVisitor(writer));
+    } finally {
+      writer.close();
+    }
+    if (writer.checkError()) {
+      throw new IOException("Cannot write " + dartFile);
+    }
+  }
+
+  /**
+   * Writes the given Dart unit into the given file, through {@link OutputUpdater} if it is not
+   * <code>null</code>.
+   */
+  private static void writeUnit(CompilationUnit dartUnit, File dartFile, OutputUpdater updater)
+      throws Exception {
+    Files.createParentDirs(dartFile);
+    // units are small, use smaller heap buffer for each
+    WritableByteChannel channel = openChannel(dartFile, updater);
+    boolean success = false;
+    try {
+      writeUnit(dartUnit, new ChannelWriter(channel, Charsets.UTF_8, 64 * 1024), dartFile);
+      if (updater != null) {
+        updater.update(dartFile);
+      }
+      success = true;
+    } finally {
+      // don't leave temporary file if formatting failed
+      if (!success && updater != null) {
+        updater.discard(dartFile);
+      }
+    }
+  }
+
+  /**
+   * Writes each of the given Dart units into a separate file in the given folder, using the same
+   * relative path as the Java source file. Units are parts of the single library, written into the
+   * file with the name of the folder, imports of all units are moved into this library file. If
+   * {@link OutputUpdater} is not <code>null</code>, unchanged files are not written.
+   */
+  private static void writeUnits(Context context, Map<File, CompilationUnit> dartUnits,
+      File outputFolder, OutputUpdater updater) throws Exception {
+    String libraryName = getLibraryName(outputFolder);
+    String libraryPath = libraryName + ".dart";
+    // prepare paths, don't allow to overwrite one output file with another
+    Map<String, File> pathToJavaFile = Maps.newLinkedHashMap();
+    for (File javaFile : dartUnits.keySet()) {
+      String javaPath = context.getRelativePath(javaFile).replace(File.separatorChar, '/');
+      String dartPath = StringUtils.removeEnd(javaPath, ".java") + ".dart";
+      Assert.isLegal(!dartPath.equals(libraryPath), "File '" + javaFile
+          + "' cannot be written into library file " + libraryPath);
+      File otherJavaFile = pathToJavaFile.put(dartPath, javaFile);
+      Assert.isLegal(otherJavaFile == null, "Files '" + otherJavaFile + "' and '" + javaFile
+          + "' cannot be both written into " + dartPath);
+    }
+    // prepare library unit, import each library once
+    List<Directive> directives = Lists.newArrayList();
+    directives.add(new LibraryDirective(
+        null,
+        null,
+        new KeywordToken(Keyword.LIBRARY, 0),
+        newLibraryIdentifier(libraryName),
+        null));
+    directives.addAll(Context.getDirectives(dartUnits.values()));
+    for (String dartPath : pathToJavaFile.keySet()) {
+      directives.add(new PartDirective(
+          null,
+          null,
+          new KeywordToken(Keyword.PART, 0),
+          newStringLiteral(dartPath),
+          null));
+    }
+    List<CompilationUnitMember> noDeclarations = Lists.newArrayList();
+    CompilationUnit libraryUnit = new CompilationUnit(null, null, directives, noDeclarations, null);
+    writeUnit(libraryUnit, new File(outputFolder, libraryPath), updater);
+    // write parts
+    for (Entry<String, File> entry : pathToJavaFile.entrySet()) {
+      CompilationUnit unit = dartUnits.get(entry.getValue());
+      List<Directive> partDirectives = Lists.newArrayList();
+      partDirectives.add(new PartOfDirective(
+          null,
+          null,
+          new KeywordToken(Keyword.PART, 0),
+          new StringToken(TokenType.IDENTIFIER, "of", 0),
+          newLibraryIdentifier(libraryName),
+          null));
+      List<CompilationUnitMember> declarations = Lists.newArrayList(unit.getDeclarations());
+      CompilationUnit partUnit = new CompilationUnit(
+          null,
+          null,
+          partDirectives,
+          declarations,
+          null);
+      writeUnit(partUnit, new File(outputFolder, entry.getKey()), updater);
+    }
+  }
 }
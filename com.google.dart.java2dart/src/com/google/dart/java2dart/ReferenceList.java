@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.dart.engine.ast.SimpleIdentifier;
+
+import java.util.Arrays;
+
+/**
+ * Compact list of {@link SimpleIdentifier}s referencing the Java binding with the same signature
+ * identifier. Identifiers are kept in a growable array, so each reference costs a single array slot
+ * instead of a linked list node.
+ */
+class ReferenceList {
+  private static final SimpleIdentifier[] EMPTY = new SimpleIdentifier[0];
+
+  private final int id;
+  private SimpleIdentifier[] identifiers = EMPTY;
+  private int size;
+
+  ReferenceList(int id) {
+    this.id = id;
+  }
+
+  /**
+   * Appends the given {@link SimpleIdentifier}.
+   */
+  public void add(SimpleIdentifier identifier) {
+    ensureCapacity(size + 1);
+    identifiers[size++] = identifier;
+  }
+
+  /**
+   * @return the {@link SimpleIdentifier} with the given index.
+   */
+  public SimpleIdentifier get(int index) {
+    return identifiers[index];
+  }
+
+  /**
+   * @return the identifier of the referenced signature.
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Removes the given {@link SimpleIdentifier}, if present.
+   */
+  public void remove(SimpleIdentifier identifier) {
+    for (int i = 0; i < size; i++) {
+      if (identifiers[i] == identifier) {
+        System.arraycopy(identifiers, i + 1, identifiers, i, size - i - 1);
+        identifiers[--size] = null;
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the number of references.
+   */
+  public int size() {
+    return size;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > identifiers.length) {
+      int newLength = Math.max(capacity, identifiers.length + (identifiers.length >> 1) + 2);
+      identifiers = Arrays.copyOf(identifiers, newLength);
+    }
+  }
+}
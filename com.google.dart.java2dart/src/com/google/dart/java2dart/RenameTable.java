@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.runtime.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Table of configured renames, from JDT signature to the new name.
+ * <p>
+ * Signature may be a pattern with <code>*</code> wildcards, for example
+ * <code>Lcom/acme/*;.get*()</code>. Wildcard matches any characters except <code>.</code>,
+ * <code>(</code>, <code>)</code> and <code>#</code>, so it does not cross member name or parameter
+ * list. New name of pattern may use <code>$1</code>...<code>$9</code> for the text matched by
+ * wildcards. Exact signature has priority over patterns, pattern with longer prefix before the
+ * first wildcard has priority over pattern with shorter one.
+ * <p>
+ * Patterns are indexed in a prefix trie by the text before the first wildcard, so lookup of the new
+ * name checks only patterns which prefix matches the signature.
+ */
+class RenameTable {
+  /**
+   * Pattern signature and its new name.
+   */
+  private static class PatternRename {
+    private final Pattern pattern;
+    private final String newName;
+
+    PatternRename(String signaturePattern, String newName) {
+      this.pattern = compilePattern(signaturePattern);
+      this.newName = newName;
+    }
+
+    /**
+     * @return the new name for the given signature, may be <code>null</code> if it does not match.
+     */
+    String getNewName(String signature) {
+      Matcher matcher = pattern.matcher(signature);
+      if (!matcher.matches()) {
+        return null;
+      }
+      // replace references to wildcards
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < newName.length(); i++) {
+        char c = newName.charAt(i);
+        if (c == '$' && i + 1 < newName.length() && Character.isDigit(newName.charAt(i + 1))) {
+          int group = newName.charAt(i + 1) - '0';
+          if (group >= 1 && group <= matcher.groupCount()) {
+            sb.append(matcher.group(group));
+            i++;
+            continue;
+          }
+        }
+        sb.append(c);
+      }
+      return sb.toString();
+    }
+  }
+
+  /**
+   * Node of the prefix trie of the pattern signatures.
+   */
+  private static class TrieNode {
+    private final Map<Character, TrieNode> children = Maps.newHashMap();
+    private final List<PatternRename> renames = Lists.newArrayList();
+  }
+
+  /**
+   * @return the {@link Pattern} for the given signature with wildcards.
+   */
+  private static Pattern compilePattern(String signaturePattern) {
+    StringBuilder regex = new StringBuilder();
+    String[] parts = StringUtils.splitPreserveAllTokens(signaturePattern, '*');
+    for (int i = 0; i < parts.length; i++) {
+      if (i != 0) {
+        regex.append("([^.()#]*)");
+      }
+      if (parts[i].length() != 0) {
+        regex.append(Pattern.quote(parts[i]));
+      }
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  private final Map<String, String> exactRenames = Maps.newHashMap();
+  private final TrieNode patternRoot = new TrieNode();
+  private int patternCount;
+
+  /**
+   * Adds rename of the binding(s) with the given signature or pattern.
+   */
+  public void add(String signature, String newName) {
+    int wildcardIndex = signature.indexOf('*');
+    if (wildcardIndex == -1) {
+      exactRenames.put(signature, newName);
+      return;
+    }
+    // add pattern into trie
+    TrieNode node = patternRoot;
+    for (int i = 0; i < wildcardIndex; i++) {
+      Character c = signature.charAt(i);
+      TrieNode child = node.children.get(c);
+      if (child == null) {
+        child = new TrieNode();
+        node.children.put(c, child);
+      }
+      node = child;
+    }
+    node.renames.add(new PatternRename(signature, newName));
+    patternCount++;
+  }
+
+  /**
+   * Adds renames from the given file, each line is signature (or pattern) and new name, separated
+   * by spaces. Blank lines and lines starting with <code>#</code> are ignored.
+   */
+  public void addAll(File file) throws IOException {
+    List<String> lines = Files.readLines(file, Charsets.UTF_8);
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.length() == 0 || line.startsWith("#")) {
+        continue;
+      }
+      String[] parts = StringUtils.split(line);
+      Assert.isLegal(parts.length == 2, "Expected signature and new name in " + file + ":"
+          + (i + 1) + " " + line);
+      add(parts[0], parts[1]);
+    }
+  }
+
+  /**
+   * @return the new name for the binding with the given signature, may be <code>null</code> if it
+   *         should not be renamed.
+   */
+  public String getNewName(String signature) {
+    // exact signature
+    {
+      String newName = exactRenames.get(signature);
+      if (newName != null) {
+        return newName;
+      }
+    }
+    // patterns, prefer the most specific
+    String newName = null;
+    if (patternCount != 0) {
+      TrieNode node = patternRoot;
+      int index = 0;
+      while (node != null) {
+        for (PatternRename rename : node.renames) {
+          String patternNewName = rename.getNewName(signature);
+          if (patternNewName != null) {
+            newName = patternNewName;
+            break;
+          }
+        }
+        if (index == signature.length()) {
+          break;
+        }
+        node = node.children.get(signature.charAt(index++));
+      }
+    }
+    return newName;
+  }
+
+  /**
+   * @return <code>true</code> if there are no renames.
+   */
+  public boolean isEmpty() {
+    return exactRenames.isEmpty() && patternCount == 0;
+  }
+}
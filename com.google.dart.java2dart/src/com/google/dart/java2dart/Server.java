@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * Resident translation server, so that JVM startup, class loading and JIT warm-up are paid once
+ * for many translations. JDT binding environment is created for each request, because it cannot be
+ * reused by another {@link org.eclipse.jdt.core.dom.ASTParser}, so use <code>cache:</code> in the
+ * configuration to skip parsing of unchanged files.
+ * <p>
+ * The server listens on the given port of the loopback interface. Each connection sends a single
+ * line with the same arguments as for {@link Main}, separated by tabs, for example path of the
+ * <code>.j2d</code> configuration file. The server translates and replies with what {@link Main}
+ * would print: either the Dart source, or the name of the written output file, or configuration
+ * and translation errors. Line <code>stop</code> stops the server.
+ * <p>
+ * Requests are handled one by one, a client which does not send request line during the read
+ * timeout is disconnected, so it cannot block other clients.
+ */
+public class Server {
+  private static final String STOP = "stop";
+  private static final int READ_TIMEOUT = 10000;
+
+  private final ServerSocket serverSocket;
+  private final int readTimeout;
+
+  public Server(int port) throws IOException {
+    this(port, READ_TIMEOUT);
+  }
+
+  Server(int port, int readTimeout) throws IOException {
+    this.serverSocket = new ServerSocket(port, 0, InetAddress.getByName(null));
+    this.readTimeout = readTimeout;
+  }
+
+  /**
+   * @return the port on which this server listens, useful if it was created with port
+   *         <code>0</code>.
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Accepts and handles requests, one by one, until <code>stop</code> request.
+   */
+  public void run() throws IOException {
+    try {
+      System.out.println("Listening on port " + getPort());
+      while (true) {
+        Socket socket = serverSocket.accept();
+        try {
+          socket.setSoTimeout(readTimeout);
+          if (!handleRequest(socket)) {
+            break;
+          }
+        } catch (SocketTimeoutException e) {
+          System.out.println("No request in " + readTimeout + " ms, disconnected");
+        } finally {
+          socket.close();
+        }
+      }
+    } finally {
+      serverSocket.close();
+    }
+  }
+
+  /**
+   * Handles single request from the given {@link Socket}.
+   * 
+   * @return <code>false</code> if server should be stopped.
+   */
+  private boolean handleRequest(Socket socket) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(
+        socket.getInputStream(),
+        Charsets.UTF_8));
+    PrintStream out = new PrintStream(socket.getOutputStream(), false, Charsets.UTF_8.name());
+    try {
+      String request = reader.readLine();
+      if (request == null) {
+        return true;
+      }
+      request = request.trim();
+      if (request.equals(STOP)) {
+        System.out.println("Stopped");
+        return false;
+      }
+      long start = System.nanoTime();
+      try {
+        // configuration problems are reported to the client
+        Config config = Config.from(StringUtils.split(request, '\t'), out);
+        if (config == null) {
+          out.println("Invalid request: " + request);
+        } else {
+          Main.translate(config, out);
+        }
+      } catch (Throwable e) {
+        e.printStackTrace(out);
+        e.printStackTrace();
+      }
+      long time = (System.nanoTime() - start) / 1000000L;
+      System.out.println("Translated " + request + " in " + time + " ms");
+      return true;
+    } finally {
+      out.flush();
+    }
+  }
+}
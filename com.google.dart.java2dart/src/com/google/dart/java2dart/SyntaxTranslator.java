@@ -14,7 +14,10 @@
 
 package com.google.dart.java2dart;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.dart.engine.ast.ASTNode;
 import com.google.dart.engine.ast.ArgumentList;
 import com.google.dart.engine.ast.AssertStatement;
@@ -31,6 +34,7 @@ import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.ast.CompilationUnitMember;
 import com.google.dart.engine.ast.ConditionalExpression;
 import com.google.dart.engine.ast.ConstructorDeclaration;
+import com.google.dart.engine.ast.ConstructorFieldInitializer;
 import com.google.dart.engine.ast.ConstructorInitializer;
 import com.google.dart.engine.ast.ConstructorName;
 import com.google.dart.engine.ast.ContinueStatement;
@@ -43,6 +47,7 @@ import com.google.dart.engine.ast.Expression;
 import com.google.dart.engine.ast.ExpressionStatement;
 import com.google.dart.engine.ast.ExtendsClause;
 import com.google.dart.engine.ast.FieldDeclaration;
+import com.google.dart.engine.ast.FieldFormalParameter;
 import com.google.dart.engine.ast.ForEachStatement;
 import com.google.dart.engine.ast.ForStatement;
 import com.google.dart.engine.ast.FormalParameter;
@@ -50,6 +55,7 @@ import com.google.dart.engine.ast.FormalParameterList;
 import com.google.dart.engine.ast.FunctionBody;
 import com.google.dart.engine.ast.IfStatement;
 import com.google.dart.engine.ast.ImplementsClause;
+import com.google.dart.engine.ast.ImportDirective;
 import com.google.dart.engine.ast.IndexExpression;
 import com.google.dart.engine.ast.InstanceCreationExpression;
 import com.google.dart.engine.ast.IntegerLiteral;
@@ -63,6 +69,7 @@ import com.google.dart.engine.ast.NullLiteral;
 import com.google.dart.engine.ast.ParenthesizedExpression;
 import com.google.dart.engine.ast.PostfixExpression;
 import com.google.dart.engine.ast.PrefixExpression;
+import com.google.dart.engine.ast.PrefixedIdentifier;
 import com.google.dart.engine.ast.PropertyAccess;
 import com.google.dart.engine.ast.RedirectingConstructorInvocation;
 import com.google.dart.engine.ast.ReturnStatement;
@@ -86,53 +93,288 @@ import com.google.dart.engine.ast.VariableDeclaration;
 import com.google.dart.engine.ast.VariableDeclarationList;
 import com.google.dart.engine.ast.VariableDeclarationStatement;
 import com.google.dart.engine.ast.WhileStatement;
+import com.google.dart.engine.ast.visitor.RecursiveASTVisitor;
 import com.google.dart.engine.scanner.Keyword;
 import com.google.dart.engine.scanner.KeywordToken;
 import com.google.dart.engine.scanner.StringToken;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.scanner.TokenType;
-import com.google.dart.java2dart.util.ExecutionUtils;
-import com.google.dart.java2dart.util.RunnableEx;
+import com.google.dart.java2dart.util.JavaUtils;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.Assert;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Translates Java AST to Dart AST.
  */
 public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
+  /**
+   * Names of Dart typed data lists for element types of Java primitive arrays. Java
+   * <code>byte</code> is signed, so it is <code>Int8List</code>, not <code>Uint8List</code>.
+   */
+  private static final Map<String, String> TYPED_DATA_LISTS = ImmutableMap
+      .<String, String> builder()
+      .put("byte", "Int8List")
+      .put("short", "Int16List")
+      .put("char", "Uint16List")
+      .put("int", "Int32List")
+      .put("long", "Int64List")
+      .put("float", "Float32List")
+      .put("double", "Float64List")
+      .build();
+
   /**
    * Translates given Java AST into Dart AST.
    */
   public static CompilationUnit translate(Context context,
       org.eclipse.jdt.core.dom.CompilationUnit javaUnit) {
     SyntaxTranslator translator = new SyntaxTranslator(context);
+    context.countNode(javaUnit);
     javaUnit.accept(translator);
     return (CompilationUnit) translator.result;
   }
 
   /**
-   * @return the {@link Method} of {@link SyntaxTranslator} to translate
-   *         {@link org.eclipse.jdt.core.dom.ASTNode} of the given class.
+   * @return the name of the field assigned by the given left hand side of Java assignment, i.e.
+   *         <code>this.name</code> or <code>name</code> not shadowed by parameter, may be
+   *         <code>null</code>.
    */
-  private static Method getMostSpecificMethod(Class<?> argumentType) throws Exception {
-    Method resultMethod = null;
-    for (Method method : SyntaxTranslator.class.getMethods()) {
-      if (method.getName().equals("visit")) {
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        if (parameterTypes.length == 1 && parameterTypes[0] == argumentType) {
-          resultMethod = method;
-          break;
+  private static String getAssignedFieldName(org.eclipse.jdt.core.dom.Expression javaTarget,
+      Set<String> parameterNames) {
+    if (javaTarget instanceof org.eclipse.jdt.core.dom.FieldAccess) {
+      org.eclipse.jdt.core.dom.FieldAccess fieldAccess = (org.eclipse.jdt.core.dom.FieldAccess) javaTarget;
+      org.eclipse.jdt.core.dom.Expression javaObject = fieldAccess.getExpression();
+      if (javaObject instanceof org.eclipse.jdt.core.dom.ThisExpression
+          && ((org.eclipse.jdt.core.dom.ThisExpression) javaObject).getQualifier() == null) {
+        return fieldAccess.getName().getIdentifier();
+      }
+    }
+    if (javaTarget instanceof org.eclipse.jdt.core.dom.SimpleName) {
+      String name = ((org.eclipse.jdt.core.dom.SimpleName) javaTarget).getIdentifier();
+      if (!parameterNames.contains(name)) {
+        return name;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of {@link org.eclipse.jdt.core.dom.SimpleName}s with the given identifier
+   *         in the given Java node.
+   */
+  private static int getNameCount(org.eclipse.jdt.core.dom.ASTNode javaNode, final String name) {
+    final int[] count = {0};
+    javaNode.accept(new org.eclipse.jdt.core.dom.ASTVisitor() {
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.SimpleName node) {
+        if (node.getIdentifier().equals(name)) {
+          count[0]++;
         }
+        return false;
       }
+    });
+    return count[0];
+  }
+
+  /**
+   * @return the declaration of the method in the top-most super type of the given type, which is
+   *         overridden by the given method, directly or indirectly; may be <code>null</code>.
+   */
+  private static org.eclipse.jdt.core.dom.IMethodBinding getOverriddenMethod(
+      org.eclipse.jdt.core.dom.ITypeBinding type,
+      org.eclipse.jdt.core.dom.IMethodBinding method) {
+    List<org.eclipse.jdt.core.dom.ITypeBinding> superTypes = Lists.newArrayList();
+    if (type.getSuperclass() != null) {
+      superTypes.add(type.getSuperclass());
     }
-    Assert.isNotNull(resultMethod);
-    return resultMethod;
+    Collections.addAll(superTypes, type.getInterfaces());
+    for (org.eclipse.jdt.core.dom.ITypeBinding superType : superTypes) {
+      for (org.eclipse.jdt.core.dom.IMethodBinding superMethod : superType.getDeclaredMethods()) {
+        if (method.overrides(superMethod)) {
+          org.eclipse.jdt.core.dom.IMethodBinding declaration = superMethod.getMethodDeclaration();
+          org.eclipse.jdt.core.dom.IMethodBinding overridden = getOverriddenMethod(
+              declaration.getDeclaringClass(),
+              declaration);
+          return overridden != null ? overridden : declaration;
+        }
+      }
+      org.eclipse.jdt.core.dom.IMethodBinding overridden = getOverriddenMethod(superType, method);
+      if (overridden != null) {
+        return overridden;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return <code>true</code> if the given binding is <code>name()</code>, <code>ordinal()</code>
+   *         or <code>values()</code> method of enum, which are translated as fields.
+   */
+  private static boolean isEnumMethod(org.eclipse.jdt.core.dom.IMethodBinding binding) {
+    if (binding == null) {
+      return false;
+    }
+    String name = binding.getName();
+    if (!name.equals("name") && !name.equals("ordinal") && !name.equals("values")) {
+      return false;
+    }
+    org.eclipse.jdt.core.dom.ITypeBinding declaringClass = binding.getDeclaringClass();
+    return declaringClass.isEnum()
+        || declaringClass.getErasure().getQualifiedName().equals("java.lang.Enum");
+  }
+
+  /**
+   * @return <code>true</code> if the given Java expression can be used in Dart constructor
+   *         initializer, i.e. does not access <code>this</code>, references only parameters and
+   *         static members. Method invocations and instance creations are allowed only if
+   *         "allowInvocations", because initializers are executed before the super constructor.
+   */
+  private static boolean isInitializerExpression(org.eclipse.jdt.core.dom.Expression javaExpression,
+      final Set<String> parameterNames, final boolean allowInvocations) {
+    final boolean[] result = {true};
+    javaExpression.accept(new org.eclipse.jdt.core.dom.ASTVisitor() {
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.AnonymousClassDeclaration node) {
+        result[0] = false;
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.ClassInstanceCreation node) {
+        if (!allowInvocations) {
+          result[0] = false;
+          return false;
+        }
+        return true;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.FieldAccess node) {
+        node.getExpression().accept(this);
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.MethodInvocation node) {
+        if (!allowInvocations || node.getExpression() == null) {
+          result[0] = false;
+          return false;
+        }
+        node.getExpression().accept(this);
+        for (Object argument : node.arguments()) {
+          ((org.eclipse.jdt.core.dom.ASTNode) argument).accept(this);
+        }
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.QualifiedName node) {
+        node.getQualifier().accept(this);
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.SimpleName node) {
+        if (parameterNames.contains(node.getIdentifier())) {
+          return false;
+        }
+        // static member or type
+        org.eclipse.jdt.core.dom.IBinding binding = node.resolveBinding();
+        if (binding instanceof org.eclipse.jdt.core.dom.ITypeBinding) {
+          return false;
+        }
+        if (binding instanceof org.eclipse.jdt.core.dom.IVariableBinding
+            && org.eclipse.jdt.core.dom.Modifier.isStatic(binding.getModifiers())) {
+          return false;
+        }
+        result[0] = false;
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.SimpleType node) {
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.SuperFieldAccess node) {
+        result[0] = false;
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.SuperMethodInvocation node) {
+        result[0] = false;
+        return false;
+      }
+
+      @Override
+      public boolean visit(org.eclipse.jdt.core.dom.ThisExpression node) {
+        result[0] = false;
+        return false;
+      }
+    });
+    return result[0];
+  }
+
+  /**
+   * @return <code>true</code> if the given {@link Token} is the given {@link Keyword}.
+   */
+  private static boolean isKeyword(Token token, Keyword keyword) {
+    return token instanceof KeywordToken && ((KeywordToken) token).getKeyword() == keyword;
+  }
+
+  /**
+   * @return <code>true</code> if the given Java expression is literal, possibly negated number, so
+   *         its translation can be used in a Dart constant expression.
+   */
+  private static boolean isLiteral(org.eclipse.jdt.core.dom.Expression expression) {
+    if (expression instanceof org.eclipse.jdt.core.dom.PrefixExpression) {
+      org.eclipse.jdt.core.dom.PrefixExpression prefixExpression = (org.eclipse.jdt.core.dom.PrefixExpression) expression;
+      org.eclipse.jdt.core.dom.PrefixExpression.Operator operator = prefixExpression.getOperator();
+      return operator == org.eclipse.jdt.core.dom.PrefixExpression.Operator.MINUS
+          && prefixExpression.getOperand() instanceof org.eclipse.jdt.core.dom.NumberLiteral;
+    }
+    return expression instanceof org.eclipse.jdt.core.dom.NumberLiteral
+        || expression instanceof org.eclipse.jdt.core.dom.StringLiteral
+        || expression instanceof org.eclipse.jdt.core.dom.CharacterLiteral
+        || expression instanceof org.eclipse.jdt.core.dom.BooleanLiteral
+        || expression instanceof org.eclipse.jdt.core.dom.NullLiteral;
+  }
+
+  /**
+   * @return the <code>this.name</code> formal parameter.
+   */
+  private static FieldFormalParameter newFieldFormalParameter(String name) {
+    return new FieldFormalParameter(
+        null,
+        null,
+        null,
+        null,
+        new KeywordToken(Keyword.THIS, 0),
+        new Token(TokenType.PERIOD, 0),
+        newSimpleIdentifier(name));
+  }
+
+  /**
+   * @return the final instance field with the given type and name.
+   */
+  private static FieldDeclaration newFinalField(String typeName, String name) {
+    List<VariableDeclaration> variables = Lists.newArrayList(new VariableDeclaration(
+        null,
+        null,
+        newSimpleIdentifier(name),
+        null,
+        null));
+    return new FieldDeclaration(null, null, null, new VariableDeclarationList(
+        new KeywordToken(Keyword.FINAL, 0),
+        new TypeName(newSimpleIdentifier(typeName), null),
+        variables), null);
   }
 
   private static TypeName newListType(TypeName elementType, int dimensions) {
@@ -147,14 +389,123 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     return listType;
   }
 
+  /**
+   * @return the Dart literal for the given constant value of Java expression, may be
+   *         <code>null</code> if there is no such literal.
+   */
+  private static Expression newLiteral(Object value) {
+    if (value instanceof String) {
+      return newStringLiteral((String) value);
+    }
+    if (value instanceof Boolean) {
+      boolean booleanValue = ((Boolean) value).booleanValue();
+      Keyword keyword = booleanValue ? Keyword.TRUE : Keyword.FALSE;
+      return new BooleanLiteral(new KeywordToken(keyword, 0), booleanValue);
+    }
+    if (value instanceof Character) {
+      String hexString = "0x" + Integer.toHexString(((Character) value).charValue());
+      return new IntegerLiteral(new StringToken(TokenType.INT, hexString, 0), 0);
+    }
+    if (value instanceof Float || value instanceof Double) {
+      double doubleValue = ((Number) value).doubleValue();
+      if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+        return null;
+      }
+      return new DoubleLiteral(new StringToken(TokenType.DOUBLE, value.toString(), 0), 0);
+    }
+    if (value instanceof Number) {
+      return new IntegerLiteral(new StringToken(TokenType.INT, value.toString(), 0), 0);
+    }
+    return null;
+  }
+
+  /**
+   * @return the simple formal parameter with the given type and name.
+   */
+  private static SimpleFormalParameter newSimpleFormalParameter(String type, String name) {
+    return new SimpleFormalParameter(
+        null,
+        null,
+        null,
+        new TypeName(newSimpleIdentifier(type), null),
+        newSimpleIdentifier(name));
+  }
+
   private static SimpleIdentifier newSimpleIdentifier(String name) {
     return new SimpleIdentifier(new StringToken(TokenType.IDENTIFIER, name, 0));
   }
 
+  /**
+   * @return the Dart string literal with the given value.
+   */
+  private static SimpleStringLiteral newStringLiteral(String value) {
+    StringBuilder sb = new StringBuilder();
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '$':
+          sb.append("\\$");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\b':
+          sb.append("\\b");
+          break;
+        case '\f':
+          sb.append("\\f");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\x%02x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    sb.append('"');
+    return new SimpleStringLiteral(new StringToken(TokenType.STRING, sb.toString(), 0), value);
+  }
+
+  /**
+   * @return the creation of the Dart typed data list with the given name, using constructor with
+   *         the given name (may be <code>null</code>) and the single given argument.
+   */
+  private static InstanceCreationExpression newTypedDataList(String listName,
+      String constructorName, Expression argument) {
+    ConstructorName constructor = new ConstructorName(
+        new TypeName(newSimpleIdentifier(listName), null),
+        null,
+        constructorName != null ? newSimpleIdentifier(constructorName) : null);
+    return new InstanceCreationExpression(
+        new KeywordToken(Keyword.NEW, 0),
+        constructor,
+        new ArgumentList(null, Lists.newArrayList(argument), null));
+  }
+
   private final Context context;
 
   private ASTNode result;
 
+  /**
+   * Is <code>true</code> if Dart typed data lists were used, so "dart:typed_data" should be
+   * imported.
+   */
+  private boolean usesTypedData;
+
   private SyntaxTranslator(Context context) {
     this.context = context;
   }
@@ -168,6 +519,23 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
 
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.ArrayCreation node) {
+    // primitive array may be typed data list
+    {
+      org.eclipse.jdt.core.dom.ArrayType javaType = node.getType();
+      String typedListName = getTypedDataListName(
+          javaType.getElementType(),
+          javaType.getDimensions());
+      if (typedListName != null) {
+        if (node.getInitializer() != null) {
+          List<Expression> elements = translateExpressionList(node.getInitializer().expressions());
+          ListLiteral listLiteral = new ListLiteral(null, null, null, elements, null);
+          return done(newTypedDataList(typedListName, "fromList", listLiteral));
+        }
+        Object javaLength = node.dimensions().get(0);
+        Expression length = translate((org.eclipse.jdt.core.dom.Expression) javaLength);
+        return done(newTypedDataList(typedListName, null, length));
+      }
+    }
     TypeName listType = translate(node.getType());
     TypeArgumentList typeArgs = listType.getTypeArguments();
     if (node.getInitializer() != null) {
@@ -189,13 +557,24 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.ArrayInitializer node) {
     List<Expression> elements = translateExpressionList(node.expressions());
-    return done(new ListLiteral(null, null, null, elements, null));
+    ListLiteral listLiteral = new ListLiteral(null, null, null, elements, null);
+    String typedListName = getTypedDataListName(node);
+    if (typedListName != null) {
+      return done(newTypedDataList(typedListName, "fromList", listLiteral));
+    }
+    return done(listLiteral);
   }
 
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.ArrayType node) {
-    TypeName elementType = translate(node.getElementType());
     int dimensions = node.getDimensions();
+    // primitive array of the last dimension may be typed data list
+    String typedListName = getTypedDataListName(node.getElementType(), 1);
+    if (typedListName != null) {
+      TypeName typedListType = new TypeName(newSimpleIdentifier(typedListName), null);
+      return done(newListType(typedListType, dimensions - 1));
+    }
+    TypeName elementType = translate(node.getElementType());
     return done(newListType(elementType, dimensions));
   }
 
@@ -219,8 +598,9 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.Block node) {
     List<Statement> statements = Lists.newArrayList();
-    for (Iterator<?> I = node.statements().iterator(); I.hasNext();) {
-      org.eclipse.jdt.core.dom.Statement javaStatement = (org.eclipse.jdt.core.dom.Statement) I.next();
+    for (int i = 0; i < node.statements().size(); i++) {
+      org.eclipse.jdt.core.dom.Statement javaStatement =
+          (org.eclipse.jdt.core.dom.Statement) node.statements().get(i);
       if (javaStatement instanceof org.eclipse.jdt.core.dom.SuperConstructorInvocation) {
         continue;
       }
@@ -283,11 +663,24 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
   public boolean visit(org.eclipse.jdt.core.dom.CompilationUnit node) {
     List<Directive> directives = Lists.newArrayList();
     List<CompilationUnitMember> declarations = Lists.newArrayList();
-    for (Iterator<?> I = node.types().iterator(); I.hasNext();) {
-      Object javaType = I.next();
+    for (int i = 0; i < node.types().size(); i++) {
+      Object javaType = node.types().get(i);
       ClassDeclaration dartClass = translate((org.eclipse.jdt.core.dom.ASTNode) javaType);
       declarations.add(dartClass);
     }
+    if (usesTypedData) {
+      directives.add(new ImportDirective(
+          null,
+          null,
+          new KeywordToken(Keyword.IMPORT, 0),
+          new SimpleStringLiteral(
+              new StringToken(TokenType.STRING, "'dart:typed_data'", 0),
+              "dart:typed_data"),
+          null,
+          null,
+          null,
+          null));
+    }
     return done(new CompilationUnit(null, null, directives, declarations, null));
   }
 
@@ -343,21 +736,30 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
 
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.EnumConstantDeclaration node) {
-    // prepare enum name
+    // prepare enum name and ordinal
     org.eclipse.jdt.core.dom.SimpleName enumTypeName;
+    int ordinal;
     {
       org.eclipse.jdt.core.dom.EnumDeclaration parentEnum = (org.eclipse.jdt.core.dom.EnumDeclaration) node.getParent();
       enumTypeName = parentEnum.getName();
+      ordinal = parentEnum.enumConstants().indexOf(node);
     }
     // prepare field type
     TypeName type = new TypeName(translateSimpleName(enumTypeName), null);
     // prepare field variables
     List<VariableDeclaration> variables = Lists.newArrayList();
     {
+      // name and ordinal are passed before declared arguments
+      ArgumentList argumentList = translateArgumentList(node.arguments());
+      argumentList.getArguments().add(0, newStringLiteral(node.getName().getIdentifier()));
+      argumentList.getArguments().add(1, new IntegerLiteral(new StringToken(
+          TokenType.INT,
+          Integer.toString(ordinal),
+          0), ordinal));
       Expression init = new InstanceCreationExpression(
           new KeywordToken(Keyword.NEW, 0),
           new ConstructorName(new TypeName(translateSimpleName(enumTypeName), null), null, null),
-          translateArgumentList(node.arguments()));
+          argumentList);
       variables.add(new VariableDeclaration(
           null,
           null,
@@ -375,6 +777,17 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
         null));
   }
 
+  /**
+   * Translates Java enum into Dart class with <code>name</code> and <code>ordinal</code> fields, a
+   * field for each constant and <code>values</code> list of all constants.
+   * <p>
+   * If constructors can be <code>const</code>, i.e. their bodies were moved into initializers with
+   * parameters and literals, fields are final and initialized with literals, if at all, and
+   * arguments of constants are literals, then constructors, constants and <code>values</code> are
+   * <code>const</code>, so constants can be used as <code>switch</code> case expressions and need no
+   * lazy initialization. Declared fields and constructor parameters named <code>name</code> or
+   * <code>ordinal</code> are renamed.
+   */
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.EnumDeclaration node) {
     SimpleIdentifier name = translateSimpleName(node.getName());
@@ -382,23 +795,189 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     ImplementsClause implementsClause = null;
     if (!node.superInterfaceTypes().isEmpty()) {
       List<TypeName> interfaces = Lists.newArrayList();
-      for (Object javaInterface : node.superInterfaceTypes()) {
+      for (int i = 0; i < node.superInterfaceTypes().size(); i++) {
+        Object javaInterface = node.superInterfaceTypes().get(i);
         interfaces.add((TypeName) translate((org.eclipse.jdt.core.dom.ASTNode) javaInterface));
       }
       implementsClause = new ImplementsClause(null, interfaces);
     }
+    // constants
+    boolean isConst = true;
+    List<FieldDeclaration> constants = Lists.newArrayList();
+    List<Expression> constantNames = Lists.newArrayList();
+    for (int i = 0; i < node.enumConstants().size(); i++) {
+      org.eclipse.jdt.core.dom.EnumConstantDeclaration javaConst =
+          (org.eclipse.jdt.core.dom.EnumConstantDeclaration) node.enumConstants().get(i);
+      constants.add((FieldDeclaration) translate(javaConst));
+      constantNames.add(translateSimpleName(javaConst.getName()));
+      if (javaConst.getAnonymousClassDeclaration() != null) {
+        isConst = false;
+      }
+      for (int j = 0; j < javaConst.arguments().size(); j++) {
+        if (!isLiteral((org.eclipse.jdt.core.dom.Expression) javaConst.arguments().get(j))) {
+          isConst = false;
+        }
+      }
+    }
+    // body declarations
+    List<ClassMember> bodyMembers = Lists.newArrayList();
+    List<ConstructorDeclaration> constructors = Lists.newArrayList();
+    boolean hasToString = false;
+    for (int i = 0; i < node.bodyDeclarations().size(); i++) {
+      org.eclipse.jdt.core.dom.BodyDeclaration javaBodyDecl =
+          (org.eclipse.jdt.core.dom.BodyDeclaration) node.bodyDeclarations().get(i);
+      ClassMember member = translate(javaBodyDecl);
+      bodyMembers.add(member);
+      if (member instanceof ConstructorDeclaration) {
+        ConstructorDeclaration constructor = (ConstructorDeclaration) member;
+        constructors.add(constructor);
+        // const if body was moved into initializers with parameters and literals, or redirecting
+        if (constructor.getConstKeyword() == null
+            && constructor.getBody() instanceof BlockFunctionBody) {
+          isConst = false;
+        }
+      }
+      if (member instanceof FieldDeclaration) {
+        FieldDeclaration field = (FieldDeclaration) member;
+        if (field.getKeyword() == null) {
+          if (!isKeyword(field.getFields().getKeyword(), Keyword.FINAL)) {
+            isConst = false;
+          }
+          // instance fields of const class can be initialized only with constants
+          org.eclipse.jdt.core.dom.FieldDeclaration javaField = (org.eclipse.jdt.core.dom.FieldDeclaration) javaBodyDecl;
+          for (Object javaFragment : javaField.fragments()) {
+            org.eclipse.jdt.core.dom.VariableDeclarationFragment fragment = (org.eclipse.jdt.core.dom.VariableDeclarationFragment) javaFragment;
+            org.eclipse.jdt.core.dom.Expression javaInitializer = fragment.getInitializer();
+            if (javaInitializer != null && !isLiteral(javaInitializer)) {
+              isConst = false;
+            }
+          }
+        }
+      }
+      if (member instanceof MethodDeclaration) {
+        MethodDeclaration method = (MethodDeclaration) member;
+        if (method.getName().getName().equals("toString")
+            && method.getParameters().getParameters().isEmpty()) {
+          hasToString = true;
+        }
+      }
+    }
+    // constructors accept name and ordinal
+    if (constructors.isEmpty()) {
+      SimpleIdentifier constructorName = newSimpleIdentifier(name.getName());
+      context.putReference(node.resolveBinding(), constructorName);
+      ConstructorDeclaration constructor = new ConstructorDeclaration(
+          null,
+          null,
+          null,
+          null,
+          null,
+          constructorName,
+          null,
+          null,
+          new FormalParameterList(null, Lists.<FormalParameter> newArrayList(), null, null, null),
+          null,
+          Lists.<ConstructorInitializer> newArrayList(),
+          null,
+          new EmptyFunctionBody(null));
+      constructors.add(constructor);
+      bodyMembers.add(0, constructor);
+    }
+    for (ConstructorDeclaration constructor : constructors) {
+      List<FormalParameter> parameters = constructor.getParameters().getParameters();
+      renameParameter(constructor, "name");
+      renameParameter(constructor, "ordinal");
+      RedirectingConstructorInvocation redirectingInvocation = null;
+      for (ConstructorInitializer initializer : constructor.getInitializers()) {
+        if (initializer instanceof RedirectingConstructorInvocation) {
+          redirectingInvocation = (RedirectingConstructorInvocation) initializer;
+        }
+      }
+      if (redirectingInvocation != null) {
+        // redirecting constructor cannot initialize fields, so pass name and ordinal
+        parameters.add(0, newSimpleFormalParameter("String", "name"));
+        parameters.add(1, newSimpleFormalParameter("int", "ordinal"));
+        List<Expression> arguments = redirectingInvocation.getArgumentList().getArguments();
+        arguments.add(0, newSimpleIdentifier("name"));
+        arguments.add(1, newSimpleIdentifier("ordinal"));
+      } else {
+        parameters.add(0, newFieldFormalParameter("name"));
+        parameters.add(1, newFieldFormalParameter("ordinal"));
+      }
+      if (isConst) {
+        constructor.setConstKeyword(new KeywordToken(Keyword.CONST, 0));
+        constructor.setBody(new EmptyFunctionBody(null));
+      }
+    }
+    // make constants "const"
+    Keyword constOrFinal = isConst ? Keyword.CONST : Keyword.FINAL;
+    if (isConst) {
+      for (FieldDeclaration constant : constants) {
+        VariableDeclarationList variableList = constant.getFields();
+        variableList.setKeyword(new KeywordToken(Keyword.CONST, 0));
+        for (VariableDeclaration variable : variableList.getVariables()) {
+          Expression initializer = variable.getInitializer();
+          ((InstanceCreationExpression) initializer).setKeyword(new KeywordToken(Keyword.CONST, 0));
+        }
+      }
+    }
     // members
     List<ClassMember> members = Lists.newArrayList();
     {
-      // constants
-      for (Object javaConst : node.enumConstants()) {
-        members.add((FieldDeclaration) translate((org.eclipse.jdt.core.dom.EnumConstantDeclaration) javaConst));
+      members.addAll(constants);
+      // values
+      {
+        SimpleIdentifier elementName = newSimpleIdentifier(name.getName());
+        SimpleIdentifier typeArgumentName = newSimpleIdentifier(name.getName());
+        context.putReference(node.resolveBinding(), elementName);
+        context.putReference(node.resolveBinding(), typeArgumentName);
+        TypeArgumentList typeArguments = new TypeArgumentList(
+            null,
+            Lists.newArrayList(new TypeName(typeArgumentName, null)),
+            null);
+        ListLiteral valuesList = new ListLiteral(
+            isConst ? new KeywordToken(Keyword.CONST, 0) : null,
+            typeArguments,
+            null,
+            constantNames,
+            null);
+        List<VariableDeclaration> variables = Lists.newArrayList(new VariableDeclaration(
+            null,
+            null,
+            newSimpleIdentifier("values"),
+            null,
+            valuesList));
+        VariableDeclarationList variableList = new VariableDeclarationList(
+            new KeywordToken(constOrFinal, 0),
+            newListType(new TypeName(elementName, null), 1),
+            variables);
+        members.add(new FieldDeclaration(
+            null,
+            null,
+            new KeywordToken(Keyword.STATIC, 0),
+            variableList,
+            null));
       }
+      // name and ordinal
+      members.add(newFinalField("String", "name"));
+      members.add(newFinalField("int", "ordinal"));
       // body declarations
-      for (Iterator<?> I = node.bodyDeclarations().iterator(); I.hasNext();) {
-        org.eclipse.jdt.core.dom.BodyDeclaration javaBodyDecl = (org.eclipse.jdt.core.dom.BodyDeclaration) I.next();
-        ClassMember member = translate(javaBodyDecl);
-        members.add(member);
+      members.addAll(bodyMembers);
+      // toString
+      if (!hasToString) {
+        List<Statement> statements = Lists.newArrayList();
+        statements.add(new ReturnStatement(null, newSimpleIdentifier("name"), null));
+        members.add(new MethodDeclaration(
+            null,
+            null,
+            null,
+            null,
+            new TypeName(newSimpleIdentifier("String"), null),
+            null,
+            null,
+            newSimpleIdentifier("toString"),
+            new FormalParameterList(null, Lists.<FormalParameter> newArrayList(), null, null, null),
+            new BlockFunctionBody(new Block(null, statements, null))));
       }
     }
     return done(new ClassDeclaration(
@@ -434,14 +1013,26 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.FieldDeclaration node) {
     boolean isFinal = org.eclipse.jdt.core.dom.Modifier.isFinal(node.getModifiers());
+    boolean isStatic = org.eclipse.jdt.core.dom.Modifier.isStatic(node.getModifiers());
+    // fields of interface are implicitly static and final
+    if (node.getParent() instanceof org.eclipse.jdt.core.dom.TypeDeclaration
+        && ((org.eclipse.jdt.core.dom.TypeDeclaration) node.getParent()).isInterface()) {
+      isFinal = true;
+      isStatic = true;
+    }
     FieldDeclaration fieldDeclaration = new FieldDeclaration(
         translateJavadoc(node),
         null,
         null,
         translateVariableDeclarationList(isFinal, node.getType(), node.fragments()),
         null);
-    if (org.eclipse.jdt.core.dom.Modifier.isStatic(node.getModifiers())) {
+    if (isStatic) {
       fieldDeclaration.setKeyword(new KeywordToken(Keyword.STATIC, 0));
+      // compile-time constants are "const", no lazy initialization
+      VariableDeclarationList variableList = fieldDeclaration.getFields();
+      if (isFinal && foldConstants(node.fragments(), variableList.getVariables())) {
+        variableList.setKeyword(new KeywordToken(Keyword.CONST, 0));
+      }
     }
     return done(fieldDeclaration);
   }
@@ -454,8 +1045,9 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     if (javaInitializer instanceof org.eclipse.jdt.core.dom.VariableDeclarationExpression) {
       org.eclipse.jdt.core.dom.VariableDeclarationExpression javaVDE = (org.eclipse.jdt.core.dom.VariableDeclarationExpression) javaInitializer;
       List<VariableDeclaration> variables = Lists.newArrayList();
-      for (Iterator<?> I = javaVDE.fragments().iterator(); I.hasNext();) {
-        org.eclipse.jdt.core.dom.VariableDeclarationFragment fragment = (org.eclipse.jdt.core.dom.VariableDeclarationFragment) I.next();
+      for (int i = 0; i < javaVDE.fragments().size(); i++) {
+        org.eclipse.jdt.core.dom.VariableDeclarationFragment fragment =
+            (org.eclipse.jdt.core.dom.VariableDeclarationFragment) javaVDE.fragments().get(i);
         variables.add((VariableDeclaration) translate(fragment));
       }
       variableList = new VariableDeclarationList(
@@ -571,7 +1163,8 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     StringBuilder buffer = new StringBuilder();
     {
       buffer.append("/**");
-      for (Object javaTag : node.tags()) {
+      for (int i = 0; i < node.tags().size(); i++) {
+        Object javaTag = node.tags().get(i);
         buffer.append(javaTag.toString());
       }
       buffer.append("\n */\n");
@@ -600,8 +1193,9 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     FormalParameterList parameterList;
     {
       List<FormalParameter> parameters = Lists.newArrayList();
-      for (Iterator<?> I = node.parameters().iterator(); I.hasNext();) {
-        org.eclipse.jdt.core.dom.SingleVariableDeclaration javaParameter = (org.eclipse.jdt.core.dom.SingleVariableDeclaration) I.next();
+      for (int i = 0; i < node.parameters().size(); i++) {
+        org.eclipse.jdt.core.dom.SingleVariableDeclaration javaParameter =
+            (org.eclipse.jdt.core.dom.SingleVariableDeclaration) node.parameters().get(i);
         SimpleFormalParameter parameter = translate(javaParameter);
         parameters.add(parameter);
       }
@@ -614,7 +1208,8 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     {
       org.eclipse.jdt.core.dom.Block javaBlock = node.getBody();
       if (javaBlock != null) {
-        for (Object javaStatement : javaBlock.statements()) {
+        for (int i = 0; i < javaBlock.statements().size(); i++) {
+          Object javaStatement = javaBlock.statements().get(i);
           if (javaStatement instanceof org.eclipse.jdt.core.dom.SuperConstructorInvocation) {
             superConstructorInvocation = translate((org.eclipse.jdt.core.dom.SuperConstructorInvocation) javaStatement);
           }
@@ -637,6 +1232,15 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     }
     if (node.isConstructor()) {
       List<ConstructorInitializer> initializers = Lists.newArrayList();
+      Token constKeyword = null;
+      if (redirectingConstructorInvocation == null && body instanceof BlockFunctionBody) {
+        Block bodyBlock = ((BlockFunctionBody) body).getBlock();
+        if (moveFinalFieldAssignments(node, parameterList, bodyBlock, initializers)
+            && superConstructorInvocation == null) {
+          constKeyword = new KeywordToken(Keyword.CONST, 0);
+          body = new EmptyFunctionBody(null);
+        }
+      }
       if (superConstructorInvocation != null) {
         initializers.add(superConstructorInvocation);
       }
@@ -647,7 +1251,7 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
           translateJavadoc(node),
           null,
           null,
-          null,
+          constKeyword,
           null,
           translateSimpleName(node.getName()),
           null,
@@ -660,6 +1264,18 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     } else {
       Token modifierKeyword = org.eclipse.jdt.core.dom.Modifier.isStatic(node.getModifiers())
           ? new KeywordToken(Keyword.STATIC, 0) : null;
+      SimpleIdentifier name = translateSimpleName(node.getName());
+      // remember overridden method, even if it is not translated
+      org.eclipse.jdt.core.dom.IMethodBinding binding = node.resolveBinding();
+      if (binding != null && modifierKeyword == null) {
+        org.eclipse.jdt.core.dom.IMethodBinding overridden = getOverriddenMethod(
+            binding.getDeclaringClass(),
+            binding);
+        if (overridden != null) {
+          String signature = JavaUtils.getShortJdtSignature(overridden.getKey());
+          context.putOverriddenSignature(name, signature);
+        }
+      }
       return done(new MethodDeclaration(
           translateJavadoc(node),
           null,
@@ -668,7 +1284,7 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
           (TypeName) translate(node.getReturnType2()),
           null,
           null,
-          translateSimpleName(node.getName()),
+          name,
           parameterList,
           body));
     }
@@ -679,6 +1295,13 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     Expression target = (Expression) translate(node.getExpression());
     ArgumentList argumentList = translateArgumentList(node.arguments());
     SimpleIdentifier name = translateSimpleName(node.getName());
+    // enum name(), ordinal() and values() are fields
+    if (node.arguments().isEmpty() && isEnumMethod(node.resolveMethodBinding())) {
+      if (target == null) {
+        return done(name);
+      }
+      return done(new PropertyAccess(target, new Token(TokenType.PERIOD, 0), name));
+    }
     return done(new MethodInvocation(target, null, name, argumentList));
   }
 
@@ -842,11 +1465,11 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     List<SwitchMember> members = Lists.newArrayList();
     {
       SwitchMember switchCase = null;
-      for (Iterator<?> I = node.statements().iterator(); I.hasNext();) {
-        Object javaMember = I.next();
+      for (int i = 0; i < node.statements().size(); i++) {
+        Object javaMember = node.statements().get(i);
         if (javaMember instanceof org.eclipse.jdt.core.dom.SwitchCase) {
           org.eclipse.jdt.core.dom.SwitchCase javaCase = (org.eclipse.jdt.core.dom.SwitchCase) javaMember;
-          Expression switchExpr = translate(javaCase.getExpression());
+          Expression switchExpr = translateCaseExpression(javaCase.getExpression());
           if (switchExpr != null) {
             switchCase = new SwitchCase(null, null, switchExpr, null, null);
           } else {
@@ -890,8 +1513,9 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
   @Override
   public boolean visit(org.eclipse.jdt.core.dom.TryStatement node) {
     List<CatchClause> catchClauses = Lists.newArrayList();
-    for (Iterator<?> I = node.catchClauses().iterator(); I.hasNext();) {
-      org.eclipse.jdt.core.dom.CatchClause javaCatch = (org.eclipse.jdt.core.dom.CatchClause) I.next();
+    for (int i = 0; i < node.catchClauses().size(); i++) {
+      org.eclipse.jdt.core.dom.CatchClause javaCatch =
+          (org.eclipse.jdt.core.dom.CatchClause) node.catchClauses().get(i);
       catchClauses.add((CatchClause) translate(javaCatch));
     }
     return done(new TryStatement(
@@ -916,8 +1540,9 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
       List<TypeParameter> typeParameters = Lists.newArrayList();
       List<?> javaTypeParameters = node.typeParameters();
       if (!javaTypeParameters.isEmpty()) {
-        for (Iterator<?> I = javaTypeParameters.iterator(); I.hasNext();) {
-          org.eclipse.jdt.core.dom.TypeParameter javaTypeParameter = (org.eclipse.jdt.core.dom.TypeParameter) I.next();
+        for (int i = 0; i < javaTypeParameters.size(); i++) {
+          org.eclipse.jdt.core.dom.TypeParameter javaTypeParameter =
+              (org.eclipse.jdt.core.dom.TypeParameter) javaTypeParameters.get(i);
           TypeParameter typeParameter = translate(javaTypeParameter);
           typeParameters.add(typeParameter);
         }
@@ -934,15 +1559,17 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     ImplementsClause implementsClause = null;
     if (!node.superInterfaceTypes().isEmpty()) {
       List<TypeName> interfaces = Lists.newArrayList();
-      for (Object javaInterface : node.superInterfaceTypes()) {
+      for (int i = 0; i < node.superInterfaceTypes().size(); i++) {
+        Object javaInterface = node.superInterfaceTypes().get(i);
         interfaces.add((TypeName) translate((org.eclipse.jdt.core.dom.ASTNode) javaInterface));
       }
       implementsClause = new ImplementsClause(null, interfaces);
     }
     // members
     List<ClassMember> members = Lists.newArrayList();
-    for (Iterator<?> I = node.bodyDeclarations().iterator(); I.hasNext();) {
-      org.eclipse.jdt.core.dom.BodyDeclaration javaBodyDecl = (org.eclipse.jdt.core.dom.BodyDeclaration) I.next();
+    for (int i = 0; i < node.bodyDeclarations().size(); i++) {
+      org.eclipse.jdt.core.dom.BodyDeclaration javaBodyDecl =
+          (org.eclipse.jdt.core.dom.BodyDeclaration) node.bodyDeclarations().get(i);
       ClassMember member = translate(javaBodyDecl);
       members.add(member);
     }
@@ -1013,6 +1640,192 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
         (Statement) translate(node.getBody())));
   }
 
+  /**
+   * Invokes the {@link #visit} overload that corresponds to the type of the given
+   * {@link org.eclipse.jdt.core.dom.ASTNode}. Dispatch is done by
+   * {@link org.eclipse.jdt.core.dom.ASTNode#getNodeType()}, so there is no reflective lookup per
+   * translated node. Nodes without translation are ignored, so {@link #result} stays
+   * <code>null</code>.
+   */
+  private void dispatch(org.eclipse.jdt.core.dom.ASTNode node) {
+    switch (node.getNodeType()) {
+      case org.eclipse.jdt.core.dom.ASTNode.ARRAY_ACCESS:
+        visit((org.eclipse.jdt.core.dom.ArrayAccess) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ARRAY_CREATION:
+        visit((org.eclipse.jdt.core.dom.ArrayCreation) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ARRAY_INITIALIZER:
+        visit((org.eclipse.jdt.core.dom.ArrayInitializer) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ARRAY_TYPE:
+        visit((org.eclipse.jdt.core.dom.ArrayType) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ASSERT_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.AssertStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ASSIGNMENT:
+        visit((org.eclipse.jdt.core.dom.Assignment) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.BLOCK:
+        visit((org.eclipse.jdt.core.dom.Block) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.BOOLEAN_LITERAL:
+        visit((org.eclipse.jdt.core.dom.BooleanLiteral) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.BREAK_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.BreakStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CAST_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.CastExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CATCH_CLAUSE:
+        visit((org.eclipse.jdt.core.dom.CatchClause) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CHARACTER_LITERAL:
+        visit((org.eclipse.jdt.core.dom.CharacterLiteral) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CLASS_INSTANCE_CREATION:
+        visit((org.eclipse.jdt.core.dom.ClassInstanceCreation) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.COMPILATION_UNIT:
+        visit((org.eclipse.jdt.core.dom.CompilationUnit) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CONDITIONAL_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.ConditionalExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CONSTRUCTOR_INVOCATION:
+        visit((org.eclipse.jdt.core.dom.ConstructorInvocation) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.CONTINUE_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.ContinueStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.DO_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.DoStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.EMPTY_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.EmptyStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ENHANCED_FOR_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.EnhancedForStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ENUM_CONSTANT_DECLARATION:
+        visit((org.eclipse.jdt.core.dom.EnumConstantDeclaration) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.ENUM_DECLARATION:
+        visit((org.eclipse.jdt.core.dom.EnumDeclaration) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.EXPRESSION_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.ExpressionStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.FIELD_ACCESS:
+        visit((org.eclipse.jdt.core.dom.FieldAccess) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.FIELD_DECLARATION:
+        visit((org.eclipse.jdt.core.dom.FieldDeclaration) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.FOR_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.ForStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.IF_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.IfStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.INFIX_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.InfixExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.INSTANCEOF_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.InstanceofExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.JAVADOC:
+        visit((org.eclipse.jdt.core.dom.Javadoc) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.LABELED_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.LabeledStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.METHOD_DECLARATION:
+        visit((org.eclipse.jdt.core.dom.MethodDeclaration) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.METHOD_INVOCATION:
+        visit((org.eclipse.jdt.core.dom.MethodInvocation) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.NULL_LITERAL:
+        visit((org.eclipse.jdt.core.dom.NullLiteral) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.NUMBER_LITERAL:
+        visit((org.eclipse.jdt.core.dom.NumberLiteral) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.PARAMETERIZED_TYPE:
+        visit((org.eclipse.jdt.core.dom.ParameterizedType) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.PARENTHESIZED_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.ParenthesizedExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.POSTFIX_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.PostfixExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.PREFIX_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.PrefixExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.PRIMITIVE_TYPE:
+        visit((org.eclipse.jdt.core.dom.PrimitiveType) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.QUALIFIED_NAME:
+        visit((org.eclipse.jdt.core.dom.QualifiedName) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.RETURN_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.ReturnStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.SIMPLE_NAME:
+        visit((org.eclipse.jdt.core.dom.SimpleName) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.SIMPLE_TYPE:
+        visit((org.eclipse.jdt.core.dom.SimpleType) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.SINGLE_VARIABLE_DECLARATION:
+        visit((org.eclipse.jdt.core.dom.SingleVariableDeclaration) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.STRING_LITERAL:
+        visit((org.eclipse.jdt.core.dom.StringLiteral) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
+        visit((org.eclipse.jdt.core.dom.SuperConstructorInvocation) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.SWITCH_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.SwitchStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.SYNCHRONIZED_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.SynchronizedStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.THIS_EXPRESSION:
+        visit((org.eclipse.jdt.core.dom.ThisExpression) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.THROW_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.ThrowStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.TRY_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.TryStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.TYPE_DECLARATION:
+        visit((org.eclipse.jdt.core.dom.TypeDeclaration) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.TYPE_LITERAL:
+        visit((org.eclipse.jdt.core.dom.TypeLiteral) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.TYPE_PARAMETER:
+        visit((org.eclipse.jdt.core.dom.TypeParameter) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.VARIABLE_DECLARATION_FRAGMENT:
+        visit((org.eclipse.jdt.core.dom.VariableDeclarationFragment) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.VARIABLE_DECLARATION_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.VariableDeclarationStatement) node);
+        break;
+      case org.eclipse.jdt.core.dom.ASTNode.WHILE_STATEMENT:
+        visit((org.eclipse.jdt.core.dom.WhileStatement) node);
+        break;
+    }
+  }
+
   /**
    * Set {@link #result} and return <code>false</code> - we don't want normal JDT visiting.
    */
@@ -1021,30 +1834,320 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
     return false;
   }
 
+  /**
+   * Replaces initializers of the given Dart variables with literals of the constant values of the
+   * corresponding Java fragments, so that constant expressions are evaluated during translation.
+   * Literal initializers are kept as is, unless the field has different primitive type, such as
+   * <code>double</code> field initialized with <code>int</code> literal, which is not allowed in
+   * Dart. References in replaced initializers are forgotten.
+   * 
+   * @return <code>true</code> if all variables are initialized with compile-time constants.
+   */
+  private boolean foldConstants(List<?> javaFragments, List<VariableDeclaration> variables) {
+    for (int i = 0; i < javaFragments.size(); i++) {
+      org.eclipse.jdt.core.dom.VariableDeclarationFragment javaFragment =
+          (org.eclipse.jdt.core.dom.VariableDeclarationFragment) javaFragments.get(i);
+      org.eclipse.jdt.core.dom.Expression javaInitializer = javaFragment.getInitializer();
+      if (javaInitializer == null) {
+        return false;
+      }
+      org.eclipse.jdt.core.dom.IVariableBinding binding = javaFragment.resolveBinding();
+      if (isLiteral(javaInitializer)) {
+        // without binding type of literal is unknown, keep it
+        if (binding == null || !binding.getType().isPrimitive()) {
+          continue;
+        }
+        org.eclipse.jdt.core.dom.ITypeBinding literalType = javaInitializer.resolveTypeBinding();
+        if (literalType != null && literalType.isEqualTo(binding.getType())) {
+          continue;
+        }
+      }
+      Expression literal = binding != null ? newLiteral(binding.getConstantValue()) : null;
+      if (literal == null) {
+        return false;
+      }
+      VariableDeclaration variable = variables.get(i);
+      context.removeReferences(variable.getInitializer());
+      variable.setInitializer(literal);
+    }
+    return true;
+  }
+
+  /**
+   * @return the name of the Dart typed data list to use for the Java array initializer, may be
+   *         <code>null</code> if typed data is not enabled or not applicable.
+   */
+  private String getTypedDataListName(org.eclipse.jdt.core.dom.ArrayInitializer node) {
+    if (!context.isTypedData()) {
+      return null;
+    }
+    // use binding if resolved
+    org.eclipse.jdt.core.dom.ITypeBinding binding = node.resolveTypeBinding();
+    if (binding != null) {
+      org.eclipse.jdt.core.dom.ITypeBinding elementType = binding.getElementType();
+      if (!elementType.isPrimitive()) {
+        return null;
+      }
+      return getTypedDataListName(elementType.getName(), binding.getDimensions());
+    }
+    // no bindings, use declared type and number of enclosing initializers
+    int depth = 0;
+    org.eclipse.jdt.core.dom.ASTNode parent = node.getParent();
+    while (parent instanceof org.eclipse.jdt.core.dom.ArrayInitializer) {
+      depth++;
+      parent = parent.getParent();
+    }
+    org.eclipse.jdt.core.dom.Type type = null;
+    int dimensions = 0;
+    if (parent instanceof org.eclipse.jdt.core.dom.ArrayCreation) {
+      type = ((org.eclipse.jdt.core.dom.ArrayCreation) parent).getType();
+    }
+    if (parent instanceof org.eclipse.jdt.core.dom.VariableDeclarationFragment) {
+      dimensions = ((org.eclipse.jdt.core.dom.VariableDeclarationFragment) parent).getExtraDimensions();
+      org.eclipse.jdt.core.dom.ASTNode declaration = parent.getParent();
+      if (declaration instanceof org.eclipse.jdt.core.dom.FieldDeclaration) {
+        type = ((org.eclipse.jdt.core.dom.FieldDeclaration) declaration).getType();
+      }
+      if (declaration instanceof org.eclipse.jdt.core.dom.VariableDeclarationStatement) {
+        type = ((org.eclipse.jdt.core.dom.VariableDeclarationStatement) declaration).getType();
+      }
+      if (declaration instanceof org.eclipse.jdt.core.dom.VariableDeclarationExpression) {
+        type = ((org.eclipse.jdt.core.dom.VariableDeclarationExpression) declaration).getType();
+      }
+    }
+    if (type instanceof org.eclipse.jdt.core.dom.ArrayType) {
+      org.eclipse.jdt.core.dom.ArrayType arrayType = (org.eclipse.jdt.core.dom.ArrayType) type;
+      dimensions += arrayType.getDimensions();
+      type = arrayType.getElementType();
+    }
+    if (type == null) {
+      return null;
+    }
+    return getTypedDataListName(type, dimensions - depth);
+  }
+
+  /**
+   * @return the name of the Dart typed data list to use for the Java array with the given
+   *         primitive element type name and number of dimensions, may be <code>null</code> if typed
+   *         data is not enabled or not applicable.
+   */
+  private String getTypedDataListName(String elementTypeName, int dimensions) {
+    if (!context.isTypedData() || dimensions != 1) {
+      return null;
+    }
+    String listName = TYPED_DATA_LISTS.get(elementTypeName);
+    if (listName != null) {
+      usesTypedData = true;
+    }
+    return listName;
+  }
+
+  /**
+   * @return the name of the Dart typed data list to use for the Java array with the given element
+   *         type and number of dimensions, may be <code>null</code>.
+   */
+  private String getTypedDataListName(org.eclipse.jdt.core.dom.Type elementType, int dimensions) {
+    if (!elementType.isPrimitiveType()) {
+      return null;
+    }
+    return getTypedDataListName(elementType.toString(), dimensions);
+  }
+
+  /**
+   * Moves leading assignments to final fields from the given body of the Java constructor into
+   * initializers. If value is parameter with the same name as field, not used anywhere else, then
+   * it is replaced with field formal parameter.
+   * 
+   * @return <code>true</code> if the constructor can be <code>const</code>, i.e. its whole body was
+   *         moved, class is enum or has no super class, all its fields are final and initialized
+   *         with parameters or literals.
+   */
+  private boolean moveFinalFieldAssignments(org.eclipse.jdt.core.dom.MethodDeclaration node,
+      FormalParameterList parameterList, Block bodyBlock,
+      List<ConstructorInitializer> initializers) {
+    if (!(node.getParent() instanceof org.eclipse.jdt.core.dom.AbstractTypeDeclaration)) {
+      return false;
+    }
+    org.eclipse.jdt.core.dom.AbstractTypeDeclaration typeDeclaration = (org.eclipse.jdt.core.dom.AbstractTypeDeclaration) node.getParent();
+    boolean isEnum = typeDeclaration instanceof org.eclipse.jdt.core.dom.EnumDeclaration;
+    boolean hasSuperclass = typeDeclaration instanceof org.eclipse.jdt.core.dom.TypeDeclaration
+        && ((org.eclipse.jdt.core.dom.TypeDeclaration) typeDeclaration).getSuperclassType() != null;
+    boolean canBeConst = isEnum
+        || typeDeclaration instanceof org.eclipse.jdt.core.dom.TypeDeclaration && !hasSuperclass;
+    // prepare final fields without initializers
+    Set<String> finalFields = Sets.newHashSet();
+    for (Object javaBodyDecl : typeDeclaration.bodyDeclarations()) {
+      if (javaBodyDecl instanceof org.eclipse.jdt.core.dom.FieldDeclaration) {
+        org.eclipse.jdt.core.dom.FieldDeclaration javaField = (org.eclipse.jdt.core.dom.FieldDeclaration) javaBodyDecl;
+        int modifiers = javaField.getModifiers();
+        if (org.eclipse.jdt.core.dom.Modifier.isStatic(modifiers)) {
+          continue;
+        }
+        for (Object javaFragment : javaField.fragments()) {
+          org.eclipse.jdt.core.dom.VariableDeclarationFragment fragment = (org.eclipse.jdt.core.dom.VariableDeclarationFragment) javaFragment;
+          org.eclipse.jdt.core.dom.Expression javaInitializer = fragment.getInitializer();
+          if (!org.eclipse.jdt.core.dom.Modifier.isFinal(modifiers)) {
+            canBeConst = false;
+          } else if (javaInitializer == null) {
+            finalFields.add(fragment.getName().getIdentifier());
+          } else if (!isLiteral(javaInitializer)) {
+            canBeConst = false;
+          }
+        }
+      }
+    }
+    // enum constructor may be const even without fields to initialize
+    if (finalFields.isEmpty() && !isEnum) {
+      return false;
+    }
+    // prepare parameters
+    Map<String, Integer> parameterIndices = Maps.newHashMap();
+    for (int i = 0; i < node.parameters().size(); i++) {
+      org.eclipse.jdt.core.dom.SingleVariableDeclaration javaParameter =
+          (org.eclipse.jdt.core.dom.SingleVariableDeclaration) node.parameters().get(i);
+      parameterIndices.put(javaParameter.getName().getIdentifier(), i);
+    }
+    Set<String> parameterNames = parameterIndices.keySet();
+    // move leading assignments, each Java statement has single Dart statement
+    int movedCount = 0;
+    for (Object javaStatement : node.getBody().statements()) {
+      if (javaStatement instanceof org.eclipse.jdt.core.dom.SuperConstructorInvocation) {
+        continue;
+      }
+      if (!(javaStatement instanceof org.eclipse.jdt.core.dom.ExpressionStatement)) {
+        break;
+      }
+      org.eclipse.jdt.core.dom.Expression javaExpression = ((org.eclipse.jdt.core.dom.ExpressionStatement) javaStatement).getExpression();
+      if (!(javaExpression instanceof org.eclipse.jdt.core.dom.Assignment)) {
+        break;
+      }
+      org.eclipse.jdt.core.dom.Assignment javaAssignment = (org.eclipse.jdt.core.dom.Assignment) javaExpression;
+      if (javaAssignment.getOperator() != org.eclipse.jdt.core.dom.Assignment.Operator.ASSIGN) {
+        break;
+      }
+      String fieldName = getAssignedFieldName(javaAssignment.getLeftHandSide(), parameterNames);
+      org.eclipse.jdt.core.dom.Expression javaValue = javaAssignment.getRightHandSide();
+      if (!finalFields.remove(fieldName)
+          || !isInitializerExpression(javaValue, parameterNames, !hasSuperclass)) {
+        break;
+      }
+      // prepare translated field and value
+      Statement statement = bodyBlock.getStatements().get(movedCount);
+      Expression assignmentExpression = ((ExpressionStatement) statement).getExpression();
+      BinaryExpression assignment = (BinaryExpression) assignmentExpression;
+      Expression target = assignment.getLeftOperand();
+      SimpleIdentifier field = target instanceof PropertyAccess
+          ? ((PropertyAccess) target).getPropertyName() : (SimpleIdentifier) target;
+      Expression value = assignment.getRightOperand();
+      // use field formal parameter or initializer
+      String valueName = javaValue instanceof org.eclipse.jdt.core.dom.SimpleName
+          ? ((org.eclipse.jdt.core.dom.SimpleName) javaValue).getIdentifier() : null;
+      boolean isParameter = parameterNames.contains(valueName);
+      if (fieldName.equals(valueName) && isParameter
+          && getNameCount(node.getBody(), fieldName) == 2) {
+        int index = parameterIndices.get(fieldName);
+        List<FormalParameter> parameters = parameterList.getParameters();
+        SimpleFormalParameter parameter = (SimpleFormalParameter) parameters.get(index);
+        parameters.set(index, new FieldFormalParameter(
+            null,
+            null,
+            null,
+            parameter.getType(),
+            new KeywordToken(Keyword.THIS, 0),
+            new Token(TokenType.PERIOD, 0),
+            field));
+      } else {
+        initializers.add(new ConstructorFieldInitializer(
+            null,
+            null,
+            field,
+            new Token(TokenType.EQ, 0),
+            value));
+        if (!isParameter && !isLiteral(javaValue)) {
+          canBeConst = false;
+        }
+      }
+      movedCount++;
+    }
+    // remove moved statements
+    List<Statement> statements = bodyBlock.getStatements();
+    for (int i = 0; i < movedCount; i++) {
+      statements.remove(0);
+    }
+    return canBeConst && statements.isEmpty();
+  }
+
+  /**
+   * Renames the declared parameter of the given enum constructor with the given name, so that it
+   * does not conflict with the <code>name</code> or <code>ordinal</code> parameter. Fields with the
+   * same name are renamed later by {@link ClassMemberRenamer}.
+   */
+  private void renameParameter(ConstructorDeclaration constructor, final String name) {
+    Set<String> names = Sets.newHashSet();
+    SimpleIdentifier conflictingName = null;
+    for (FormalParameter parameter : constructor.getParameters().getParameters()) {
+      SimpleIdentifier identifier = parameter.getIdentifier();
+      names.add(identifier.getName());
+      if (!(parameter instanceof FieldFormalParameter) && identifier.getName().equals(name)) {
+        conflictingName = identifier;
+      }
+    }
+    if (conflictingName == null) {
+      return;
+    }
+    int index = 2;
+    while (names.contains(name + index)) {
+      index++;
+    }
+    final String newName = name + index;
+    if (context.getReferenceSignature(conflictingName) != null) {
+      context.renameReferences(conflictingName, newName);
+      return;
+    }
+    // no bindings, parameter cannot be shadowed, so rename all not qualified names
+    constructor.accept(new RecursiveASTVisitor<Void>() {
+      @Override
+      public Void visitSimpleIdentifier(SimpleIdentifier node) {
+        ASTNode parent = node.getParent();
+        if (!node.getName().equals(name) || parent instanceof ConstructorDeclaration
+            || parent instanceof ConstructorFieldInitializer
+            || parent instanceof FieldFormalParameter || parent instanceof Label) {
+          return null;
+        }
+        if (parent instanceof PropertyAccess && ((PropertyAccess) parent).getPropertyName() == node
+            || parent instanceof PrefixedIdentifier
+            && ((PrefixedIdentifier) parent).getIdentifier() == node
+            || parent instanceof MethodInvocation
+            && ((MethodInvocation) parent).getMethodName() == node) {
+          return null;
+        }
+        node.setToken(new StringToken(TokenType.IDENTIFIER, newName, 0));
+        return null;
+      }
+    });
+  }
+
   /**
    * Recursively translates given {@link org.eclipse.jdt.core.dom.ASTNode} to Dart {@link ASTNode}.
+   * <p>
+   * This method is called for every Java node, so it should not allocate anything except the
+   * produced Dart nodes. Exceptions thrown by <code>visit</code> methods are propagated as is.
    * 
    * @return the corresponding Dart {@link ASTNode}, may be <code>null</code> if <code>null</code>
    *         argument was given; not <code>null</code> if argument is not <code>null</code> (if
    *         translation is not implemented, exception will be thrown).
    */
   @SuppressWarnings("unchecked")
-  private <T extends ASTNode> T translate(final org.eclipse.jdt.core.dom.ASTNode node) {
+  private <T extends ASTNode> T translate(org.eclipse.jdt.core.dom.ASTNode node) {
     if (node == null) {
       return null;
     }
-    ExecutionUtils.runRethrow(new RunnableEx() {
-      @Override
-      public void run() throws Exception {
-        Method method = getMostSpecificMethod(node.getClass());
-        try {
-          method.invoke(SyntaxTranslator.this, node);
-        } catch (InvocationTargetException e) {
-          ExecutionUtils.propagate(e.getCause());
-        }
-      }
-    });
-    Assert.isNotNull(result, "No result for: " + node.getClass().getCanonicalName());
+    context.countNode(node);
+    dispatch(node);
+    // don't build failure message for every node
+    if (result == null) {
+      Assert.isNotNull(result, "No result for: " + node.getClass().getCanonicalName());
+    }
     T castedResult = (T) result;
     result = null;
     return castedResult;
@@ -1065,14 +2168,36 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
    */
   private List<Expression> translateExpressionList(List<?> javaArguments) {
     List<Expression> arguments = Lists.newArrayList();
-    for (Iterator<?> I = javaArguments.iterator(); I.hasNext();) {
-      org.eclipse.jdt.core.dom.Expression javaArg = (org.eclipse.jdt.core.dom.Expression) I.next();
+    for (int i = 0; i < javaArguments.size(); i++) {
+      org.eclipse.jdt.core.dom.Expression javaArg =
+          (org.eclipse.jdt.core.dom.Expression) javaArguments.get(i);
       Expression dartArg = translate(javaArg);
       arguments.add(dartArg);
     }
     return arguments;
   }
 
+  /**
+   * Translates the given Java <code>switch</code> case expression. Enum constants are qualified
+   * with the enum name, as Dart requires.
+   */
+  private Expression translateCaseExpression(org.eclipse.jdt.core.dom.Expression javaExpression) {
+    if (javaExpression instanceof org.eclipse.jdt.core.dom.SimpleName) {
+      org.eclipse.jdt.core.dom.IBinding binding = ((org.eclipse.jdt.core.dom.SimpleName) javaExpression).resolveBinding();
+      if (binding instanceof org.eclipse.jdt.core.dom.IVariableBinding
+          && ((org.eclipse.jdt.core.dom.IVariableBinding) binding).isEnumConstant()) {
+        org.eclipse.jdt.core.dom.ITypeBinding enumBinding = ((org.eclipse.jdt.core.dom.IVariableBinding) binding).getDeclaringClass();
+        SimpleIdentifier enumName = newSimpleIdentifier(enumBinding.getName());
+        context.putReference(enumBinding, enumName);
+        return new PrefixedIdentifier(
+            enumName,
+            new Token(TokenType.PERIOD, 0),
+            (SimpleIdentifier) translate(javaExpression));
+      }
+    }
+    return translate(javaExpression);
+  }
+
   private Comment translateJavadoc(org.eclipse.jdt.core.dom.BodyDeclaration node) {
     return (Comment) translate(node.getJavadoc());
   }
@@ -1087,8 +2212,8 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
    */
   private TypeArgumentList translateTypeArgumentList(List<?> javaArguments) {
     List<TypeName> arguments = Lists.newArrayList();
-    for (Iterator<?> I = javaArguments.iterator(); I.hasNext();) {
-      org.eclipse.jdt.core.dom.Type javaArg = (org.eclipse.jdt.core.dom.Type) I.next();
+    for (int i = 0; i < javaArguments.size(); i++) {
+      org.eclipse.jdt.core.dom.Type javaArg = (org.eclipse.jdt.core.dom.Type) javaArguments.get(i);
       TypeName dartArg = translate(javaArg);
       arguments.add(dartArg);
     }
@@ -1102,8 +2227,9 @@ public class SyntaxTranslator extends org.eclipse.jdt.core.dom.ASTVisitor {
   private VariableDeclarationList translateVariableDeclarationList(boolean isFinal,
       org.eclipse.jdt.core.dom.Type javaType, List<?> javaVars) {
     List<VariableDeclaration> variableDeclarations = Lists.newArrayList();
-    for (Iterator<?> I = javaVars.iterator(); I.hasNext();) {
-      org.eclipse.jdt.core.dom.VariableDeclarationFragment javaFragment = (org.eclipse.jdt.core.dom.VariableDeclarationFragment) I.next();
+    for (int i = 0; i < javaVars.size(); i++) {
+      org.eclipse.jdt.core.dom.VariableDeclarationFragment javaFragment =
+          (org.eclipse.jdt.core.dom.VariableDeclarationFragment) javaVars.get(i);
       VariableDeclaration var = translate(javaFragment);
       variableDeclarations.add(var);
     }
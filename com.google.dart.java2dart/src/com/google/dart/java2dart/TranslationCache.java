@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.dart.engine.ast.ASTNode;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.error.AnalysisError;
+import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.parser.Parser;
+import com.google.dart.engine.scanner.StringScanner;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.utilities.io.PrintStringWriter;
+import com.google.dart.java2dart.util.ToFormattedSourceVisitor;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * On-disk cache of translated units, keyed by the content hash of the Java source file and by the
+ * binding environment, i.e. source folders and Java runtime.
+ * <p>
+ * Translation of a unit also depends on the types it references, for example signatures of
+ * overloaded methods and values of folded constants. So each entry keeps content hashes of the
+ * source files of the referenced types and their super types, transitively, and is used only if
+ * none of these files was changed.
+ * <p>
+ * Each entry keeps the Dart source of the unit, just as {@link SyntaxTranslator} produced it, and
+ * the JDT signatures of the identifiers in it. When an entry is used, the Dart source is parsed
+ * back and the references are registered in the {@link Context}, so renames and name
+ * normalization see the same bindings as without cache.
+ * <p>
+ * References are stored by the index of the {@link SimpleIdentifier} in the unit (not counting
+ * comments), with the signature of the overridden method, if any. A unit is cached only if its
+ * re-parsed Dart source produces the same source and the same identifiers, so using the cache never
+ * changes the translation.
+ */
+class TranslationCache {
+  /**
+   * The version of the translation, should be changed when {@link SyntaxTranslator} changes in
+   * any way which affects produced Dart AST.
+   */
+  private static final String VERSION = "8";
+  private static final String EXTENSION = ".dart-cache";
+
+  /**
+   * Visitor to collect qualified names of the top-level types referenced in a Java unit, with their
+   * super types.
+   */
+  private static class DependencyCollector extends org.eclipse.jdt.core.dom.ASTVisitor {
+    private final Set<String> typeNames = Sets.newHashSet();
+
+    @Override
+    public boolean visit(org.eclipse.jdt.core.dom.SimpleName node) {
+      org.eclipse.jdt.core.dom.IBinding binding = node.resolveBinding();
+      if (binding instanceof org.eclipse.jdt.core.dom.ITypeBinding) {
+        addType((org.eclipse.jdt.core.dom.ITypeBinding) binding);
+      }
+      if (binding instanceof org.eclipse.jdt.core.dom.IMethodBinding) {
+        addType(((org.eclipse.jdt.core.dom.IMethodBinding) binding).getDeclaringClass());
+      }
+      if (binding instanceof org.eclipse.jdt.core.dom.IVariableBinding) {
+        addType(((org.eclipse.jdt.core.dom.IVariableBinding) binding).getDeclaringClass());
+      }
+      addType(node.resolveTypeBinding());
+      return true;
+    }
+
+    private void addType(org.eclipse.jdt.core.dom.ITypeBinding type) {
+      if (type == null) {
+        return;
+      }
+      if (type.isArray()) {
+        type = type.getElementType();
+      }
+      if (type.isPrimitive() || type.isTypeVariable() || type.isWildcardType()) {
+        return;
+      }
+      type = type.getErasure();
+      while (type.getDeclaringClass() != null) {
+        type = type.getDeclaringClass();
+      }
+      if (typeNames.add(type.getQualifiedName())) {
+        addType(type.getSuperclass());
+        for (org.eclipse.jdt.core.dom.ITypeBinding interfaceType : type.getInterfaces()) {
+          addType(interfaceType);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the formatted Dart source of the given {@link ASTNode}.
+   */
+  private static String getFormattedSource(ASTNode node) {
+    PrintStringWriter writer = new PrintStringWriter();
+    node.accept(new ToFormattedSourceVisitor(writer));
+    return writer.toString();
+  }
+
+  /**
+   * @return the Dart {@link CompilationUnit} parsed from the given source, may be
+   *         <code>null</code> if there are errors.
+   */
+  private static CompilationUnit parseDart(String source) {
+    final boolean[] hasErrors = {false};
+    AnalysisErrorListener errorListener = new AnalysisErrorListener() {
+      @Override
+      public void onError(AnalysisError error) {
+        hasErrors[0] = true;
+      }
+    };
+    Token token = new StringScanner(null, source, errorListener).tokenize();
+    CompilationUnit unit = new Parser(null, errorListener).parseCompilationUnit(token);
+    return hasErrors[0] ? null : unit;
+  }
+
+  private final File folder;
+  private final Map<File, String> fileKeys = Maps.newHashMap();
+  private final Map<File, String> contentHashes = Maps.newHashMap();
+  private final Map<File, Set<File>> dependencies = Maps.newHashMap();
+  private String environmentKey;
+  private int hitCount;
+  private int missCount;
+
+  TranslationCache(File folder) {
+    this.folder = folder;
+  }
+
+  /**
+   * @return the number of units loaded from this cache.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of units which were not found in this cache.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the cached Dart {@link CompilationUnit} for the given Java file translated in the given
+   *         {@link Context}, with its references registered in the given unit {@link Context}; may
+   *         be <code>null</code> if not cached, if any of its dependencies was changed or if the
+   *         entry is corrupted.
+   */
+  CompilationUnit load(Context context, File javaFile, Context unitContext) throws IOException {
+    File entryFile = getEntryFile(context, javaFile);
+    if (!entryFile.isFile()) {
+      missCount++;
+      return null;
+    }
+    String entry = Files.toString(entryFile, Charsets.UTF_8);
+    CompilationUnit dartUnit;
+    try {
+      dartUnit = readEntry(unitContext, javaFile, entry);
+    } catch (RuntimeException e) {
+      dartUnit = null;
+    }
+    if (dartUnit == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return dartUnit;
+  }
+
+  /**
+   * Remembers the source files of the types referenced in the given Java unit, translated from the
+   * given Java file. May be called from several threads.
+   */
+  synchronized void putDependencies(Context context, File javaFile,
+      org.eclipse.jdt.core.dom.CompilationUnit javaUnit) {
+    DependencyCollector collector = new DependencyCollector();
+    javaUnit.accept(collector);
+    Set<File> files = Sets.newHashSet();
+    for (String typeName : collector.typeNames) {
+      String path = typeName.replace('.', File.separatorChar) + ".java";
+      for (File sourceFolder : context.getSourceFolders()) {
+        File file = new File(sourceFolder, path);
+        if (file.isFile()) {
+          files.add(file);
+          break;
+        }
+      }
+    }
+    files.remove(javaFile);
+    dependencies.put(javaFile, files);
+  }
+
+  /**
+   * Stores the given Dart {@link CompilationUnit} translated from the given Java file, with
+   * references known to the given {@link Context}. Must be called before any renames.
+   */
+  void store(Context context, File javaFile, CompilationUnit dartUnit) throws IOException {
+    String dartSource = getFormattedSource(dartUnit);
+    List<SimpleIdentifier> identifiers = Context.getIdentifiers(dartUnit);
+    // check that we can restore this unit
+    {
+      CompilationUnit restoredUnit = parseDart(dartSource);
+      if (restoredUnit == null || !getFormattedSource(restoredUnit).equals(dartSource)) {
+        return;
+      }
+      List<SimpleIdentifier> restoredIdentifiers = Context.getIdentifiers(restoredUnit);
+      if (restoredIdentifiers.size() != identifiers.size()) {
+        return;
+      }
+      for (int i = 0; i < identifiers.size(); i++) {
+        if (!restoredIdentifiers.get(i).getName().equals(identifiers.get(i).getName())) {
+          return;
+        }
+      }
+    }
+    // prepare entry
+    StringBuilder entry = new StringBuilder();
+    {
+      Set<File> dependencyFiles = getTransitiveDependencies(javaFile);
+      entry.append(dependencyFiles.size()).append('\n');
+      for (File dependencyFile : dependencyFiles) {
+        String hash = getContentHash(dependencyFile);
+        entry.append(hash).append(' ').append(dependencyFile.getPath()).append('\n');
+      }
+      StringBuilder references = new StringBuilder();
+      int referenceCount = 0;
+      for (int i = 0; i < identifiers.size(); i++) {
+        SimpleIdentifier identifier = identifiers.get(i);
+        String signature = context.getReferenceSignature(identifier);
+        if (signature != null) {
+          references.append(i).append(' ').append(signature);
+          String overriddenSignature = context.getOverriddenSignature(identifier);
+          if (overriddenSignature != null) {
+            references.append(' ').append(overriddenSignature);
+          }
+          references.append('\n');
+          referenceCount++;
+        }
+      }
+      entry.append(referenceCount).append('\n');
+      entry.append(references);
+      entry.append(dartSource);
+    }
+    // write entry, atomically to allow concurrent translations
+    File entryFile = getEntryFile(context, javaFile);
+    File tmpFile = new File(folder, entryFile.getName() + ".tmp");
+    Files.write(entry, tmpFile, Charsets.UTF_8);
+    if (!tmpFile.renameTo(entryFile)) {
+      tmpFile.delete();
+    }
+  }
+
+  /**
+   * @return the SHA-1 of the given file content, may be <code>null</code> if there is no such
+   *         file.
+   */
+  private String getContentHash(File file) throws IOException {
+    String hash = contentHashes.get(file);
+    if (hash == null && file.isFile()) {
+      hash = Files.hash(file, Hashing.sha1()).toString();
+      contentHashes.put(file, hash);
+    }
+    return hash;
+  }
+
+  /**
+   * @return the {@link File} of the cache entry for the given Java file, translated with options
+   *         and in the binding environment of the given {@link Context}.
+   */
+  private File getEntryFile(Context context, File javaFile) throws IOException {
+    String key = fileKeys.get(javaFile);
+    if (key == null) {
+      byte[] content = Files.toByteArray(javaFile);
+      key = Hashing.sha1().newHasher().putString(getEnvironmentKey(context)).putBytes(content)
+          .hash().toString();
+      fileKeys.put(javaFile, key);
+    }
+    return new File(folder, key + EXTENSION);
+  }
+
+  /**
+   * @return the {@link String} with translation version, options, source folders and Java runtime
+   *         of the given {@link Context}, which affect translation of any unit.
+   */
+  private String getEnvironmentKey(Context context) {
+    if (environmentKey == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(VERSION).append('\n');
+      sb.append(context.isTypedData() ? "typedData" : "").append('\n');
+      for (File sourceFolder : context.getSourceFolders()) {
+        sb.append(sourceFolder.getAbsolutePath()).append('\n');
+      }
+      sb.append(System.getProperty("java.home")).append('\n');
+      sb.append(System.getProperty("java.version")).append('\n');
+      environmentKey = sb.toString();
+    }
+    return environmentKey;
+  }
+
+  /**
+   * @return the source files on which translation of the given Java file depends, directly or
+   *         through other translated files, sorted.
+   */
+  private Set<File> getTransitiveDependencies(File javaFile) {
+    Set<File> result = Sets.newTreeSet();
+    List<File> queue = Lists.newArrayList(javaFile);
+    while (!queue.isEmpty()) {
+      File file = queue.remove(queue.size() - 1);
+      Set<File> files = dependencies.get(file);
+      if (files != null) {
+        for (File dependency : files) {
+          if (result.add(dependency)) {
+            queue.add(dependency);
+          }
+        }
+      }
+    }
+    result.remove(javaFile);
+    return result;
+  }
+
+  /**
+   * @return the Dart {@link CompilationUnit} restored from the given entry, may be
+   *         <code>null</code> if any dependency was changed or Dart source cannot be parsed.
+   */
+  private CompilationUnit readEntry(Context context, File javaFile, String entry)
+      throws IOException {
+    // read dependencies: number of dependencies, "hash path" lines
+    int offset = entry.indexOf('\n');
+    int dependencyCount = Integer.parseInt(entry.substring(0, offset));
+    Set<File> dependencyFiles = Sets.newHashSet();
+    for (int i = 0; i < dependencyCount; i++) {
+      int lineStart = offset + 1;
+      offset = entry.indexOf('\n', lineStart);
+      String line = entry.substring(lineStart, offset);
+      File dependencyFile = new File(StringUtils.substringAfter(line, " "));
+      String hash = StringUtils.substringBefore(line, " ");
+      if (!hash.equals(getContentHash(dependencyFile))) {
+        return null;
+      }
+      dependencyFiles.add(dependencyFile);
+    }
+    // read references: number of references, "index signature [overridden-signature]" lines
+    int lineStart = offset + 1;
+    offset = entry.indexOf('\n', lineStart);
+    int referenceCount = Integer.parseInt(entry.substring(lineStart, offset));
+    int[] referenceIndices = new int[referenceCount];
+    String[] referenceSignatures = new String[referenceCount];
+    String[] overriddenSignatures = new String[referenceCount];
+    for (int i = 0; i < referenceCount; i++) {
+      lineStart = offset + 1;
+      offset = entry.indexOf('\n', lineStart);
+      String[] parts = StringUtils.split(entry.substring(lineStart, offset), ' ');
+      referenceIndices[i] = Integer.parseInt(parts[0]);
+      referenceSignatures[i] = parts[1];
+      overriddenSignatures[i] = parts.length > 2 ? parts[2] : null;
+    }
+    String dartSource = entry.substring(offset + 1);
+    // restore Dart AST and references
+    CompilationUnit dartUnit = parseDart(dartSource);
+    if (dartUnit == null) {
+      return null;
+    }
+    List<SimpleIdentifier> identifiers = Context.getIdentifiers(dartUnit);
+    for (int i = 0; i < referenceCount; i++) {
+      if (referenceIndices[i] < 0 || referenceIndices[i] >= identifiers.size()) {
+        return null;
+      }
+    }
+    for (int i = 0; i < referenceCount; i++) {
+      SimpleIdentifier identifier = identifiers.get(referenceIndices[i]);
+      context.putReference(referenceSignatures[i], identifier);
+      if (overriddenSignatures[i] != null) {
+        context.putOverriddenSignature(identifier, overriddenSignatures[i]);
+      }
+    }
+    // entry dependencies are already transitive
+    dependencies.put(javaFile, dependencyFiles);
+    return dartUnit;
+  }
+}
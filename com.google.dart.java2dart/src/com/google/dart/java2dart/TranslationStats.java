@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+import org.apache.commons.io.Charsets;
+import org.eclipse.jdt.core.dom.ASTNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Timings of translation phases and counters of translated files, nodes, references and renames.
+ * Can be printed as human readable summary, or written as JSON, to track translation throughput.
+ * <p>
+ * Phases are kept in order of their first appearance. When translation is done in parallel, time of
+ * per-unit phases is sum of times in all threads, so throughput and phase percentages are computed
+ * from the separately tracked wall-clock time.
+ */
+public class TranslationStats {
+  private final Map<String, Long> phaseTimes = Maps.newLinkedHashMap();
+  private final Map<String, Long> counters = Maps.newLinkedHashMap();
+  private long[] nodeCounts = new long[128];
+  private long wallNanos;
+
+  /**
+   * Adds the given value to the counter with the given name.
+   */
+  public void addCount(String name, long value) {
+    Long oldValue = counters.get(name);
+    counters.put(name, oldValue != null ? oldValue + value : value);
+  }
+
+  /**
+   * Adds the given time in nanoseconds to the phase with the given name.
+   */
+  public void addTime(String phase, long nanos) {
+    Long oldNanos = phaseTimes.get(phase);
+    phaseTimes.put(phase, oldNanos != null ? oldNanos + nanos : nanos);
+  }
+
+  /**
+   * Adds the given wall-clock time in nanoseconds of translation.
+   */
+  public void addWallTime(long nanos) {
+    wallNanos += nanos;
+  }
+
+  /**
+   * @return the value of the counter with the given name, <code>0</code> if not counted.
+   */
+  public long getCount(String name) {
+    Long value = counters.get(name);
+    return value != null ? value : 0;
+  }
+
+  /**
+   * @return the number of translated Java nodes, by JDT node class name, sorted by name.
+   */
+  public Map<String, Long> getNodeCounts() {
+    Map<String, Long> result = Maps.newTreeMap();
+    for (int nodeType = 0; nodeType < nodeCounts.length; nodeType++) {
+      long count = nodeCounts[nodeType];
+      if (count != 0) {
+        String name = ASTNode.nodeClassForType(nodeType).getSimpleName();
+        result.put(name, count);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the time in milliseconds of the phase with the given name, <code>0</code> if not
+   *         timed.
+   */
+  public long getTime(String phase) {
+    Long nanos = phaseTimes.get(phase);
+    return nanos != null ? nanos / 1000000L : 0;
+  }
+
+  /**
+   * @return the wall-clock time in milliseconds of translation, or the sum of phase times if the
+   *         wall-clock time was not tracked.
+   */
+  public long getWallTime() {
+    return getWallNanos() / 1000000L;
+  }
+
+  /**
+   * Prints human readable summary into the given {@link PrintStream}. Phases of parallel
+   * translation may take more than 100% of the wall-clock time.
+   */
+  public void printSummary(PrintStream out) {
+    long totalNanos = getWallNanos();
+    out.println("Wall time: " + totalNanos / 1000000L + " ms");
+    out.println("Phases:");
+    for (Entry<String, Long> entry : phaseTimes.entrySet()) {
+      long nanos = entry.getValue();
+      long percent = totalNanos != 0 ? nanos * 100 / totalNanos : 0;
+      out.println("  " + entry.getKey() + ": " + nanos / 1000000L + " ms (" + percent + "%)");
+    }
+    out.println("Counters:");
+    for (Entry<String, Long> entry : counters.entrySet()) {
+      out.println("  " + entry.getKey() + ": " + entry.getValue());
+    }
+    long nodes = 0;
+    for (long count : nodeCounts) {
+      nodes += count;
+    }
+    out.println("  nodes: " + nodes);
+    if (totalNanos != 0) {
+      long filesPerSecond = getCount("files") * 1000000000L / totalNanos;
+      out.println("Throughput: " + filesPerSecond + " files/s");
+    }
+  }
+
+  /**
+   * Writes phases, counters and node counts into the given file as JSON object.
+   */
+  public void writeJson(File file) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    sb.append("  \"wallMillis\": ").append(getWallTime()).append(",\n");
+    sb.append("  \"phaseMillis\": {");
+    appendJsonMembers(sb, phaseTimes, true);
+    sb.append("},\n");
+    sb.append("  \"counters\": {");
+    appendJsonMembers(sb, counters, false);
+    sb.append("},\n");
+    sb.append("  \"nodes\": {");
+    appendJsonMembers(sb, getNodeCounts(), false);
+    sb.append("}\n");
+    sb.append("}\n");
+    Files.write(sb, file, Charsets.UTF_8);
+  }
+
+  /**
+   * Adds phase times, counters and node counts of the given {@link TranslationStats}. Wall-clock
+   * time is not added, because the given statistics are collected in parallel.
+   */
+  void addAll(TranslationStats other) {
+    for (Entry<String, Long> entry : other.phaseTimes.entrySet()) {
+      addTime(entry.getKey(), entry.getValue());
+    }
+    for (Entry<String, Long> entry : other.counters.entrySet()) {
+      addCount(entry.getKey(), entry.getValue());
+    }
+    for (int nodeType = 0; nodeType < other.nodeCounts.length; nodeType++) {
+      if (other.nodeCounts[nodeType] != 0) {
+        ensureNodeType(nodeType);
+        nodeCounts[nodeType] += other.nodeCounts[nodeType];
+      }
+    }
+  }
+
+  /**
+   * Counts translated Java node of the given type, see
+   * {@link ASTNode#getNodeType()}.
+   */
+  void addNode(int nodeType) {
+    ensureNodeType(nodeType);
+    nodeCounts[nodeType]++;
+  }
+
+  /**
+   * Appends given values as JSON object members, names are known to have no special characters.
+   */
+  private void appendJsonMembers(StringBuilder sb, Map<String, Long> values,
+      boolean nanosToMillis) {
+    boolean first = true;
+    for (Entry<String, Long> entry : values.entrySet()) {
+      if (!first) {
+        sb.append(",");
+      }
+      first = false;
+      long value = entry.getValue();
+      if (nanosToMillis) {
+        value /= 1000000L;
+      }
+      sb.append("\n    \"").append(entry.getKey()).append("\": ").append(value);
+    }
+    if (!first) {
+      sb.append("\n  ");
+    }
+  }
+
+  private void ensureNodeType(int nodeType) {
+    if (nodeType >= nodeCounts.length) {
+      nodeCounts = Arrays.copyOf(nodeCounts, nodeType + 1);
+    }
+  }
+
+  private long getWallNanos() {
+    if (wallNanos != 0) {
+      return wallNanos;
+    }
+    long totalNanos = 0;
+    for (Long nanos : phaseTimes.values()) {
+      totalNanos += nanos;
+    }
+    return totalNanos;
+  }
+}
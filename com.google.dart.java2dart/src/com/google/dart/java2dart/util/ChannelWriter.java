@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.util;
+
+import org.apache.commons.io.Charsets;
+import org.eclipse.core.runtime.Assert;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * {@link Writer} which collects characters in a large buffer, encodes them directly into a large
+ * {@link ByteBuffer} and writes it into a {@link WritableByteChannel}. Unlike
+ * {@link java.io.OutputStreamWriter} over buffered stream, there are no intermediate copies and
+ * {@link String}s, and bytes are written in large blocks.
+ * <p>
+ * Not thread-safe.
+ */
+public class ChannelWriter extends Writer {
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  private final WritableByteChannel channel;
+  private final CharsetEncoder encoder;
+  private final char[] chars;
+  private final ByteBuffer bytes;
+  private int charsLength;
+  private long charCount;
+
+  /**
+   * Creates {@link ChannelWriter} with a large direct buffer, which writes UTF-8 bytes. Should be
+   * used for large outputs, so that bytes are written from the native memory without copying.
+   */
+  public ChannelWriter(WritableByteChannel channel) {
+    this(channel, Charsets.UTF_8, BUFFER_SIZE, true);
+  }
+
+  /**
+   * Creates {@link ChannelWriter} with a heap buffer of the given size.
+   */
+  public ChannelWriter(WritableByteChannel channel, Charset charset, int bufferSize) {
+    this(channel, charset, bufferSize, false);
+  }
+
+  public ChannelWriter(WritableByteChannel channel, Charset charset, int bufferSize,
+      boolean direct) {
+    Assert.isLegal(bufferSize >= 16, "Buffer size should be at least 16: " + bufferSize);
+    this.channel = channel;
+    this.encoder = charset.newEncoder();
+    encoder.onMalformedInput(CodingErrorAction.REPLACE);
+    encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.chars = new char[bufferSize];
+    this.bytes = direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!channel.isOpen()) {
+      return;
+    }
+    try {
+      encodeChars(true);
+      while (encoder.flush(bytes).isOverflow()) {
+        writeBytes();
+      }
+      writeBytes();
+    } finally {
+      channel.close();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    encodeChars(false);
+    writeBytes();
+  }
+
+  /**
+   * @return the number of characters written into this {@link ChannelWriter}.
+   */
+  public long getCharCount() {
+    return charCount;
+  }
+
+  @Override
+  public void write(char[] buffer, int offset, int length) throws IOException {
+    charCount += length;
+    while (length != 0) {
+      int count = Math.min(length, chars.length - charsLength);
+      System.arraycopy(buffer, offset, chars, charsLength, count);
+      charsLength += count;
+      offset += count;
+      length -= count;
+      if (charsLength == chars.length) {
+        encodeChars(false);
+      }
+    }
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    charCount++;
+    chars[charsLength++] = (char) c;
+    if (charsLength == chars.length) {
+      encodeChars(false);
+    }
+  }
+
+  @Override
+  public void write(String str, int offset, int length) throws IOException {
+    charCount += length;
+    while (length != 0) {
+      int count = Math.min(length, chars.length - charsLength);
+      str.getChars(offset, offset + count, chars, charsLength);
+      charsLength += count;
+      offset += count;
+      length -= count;
+      if (charsLength == chars.length) {
+        encodeChars(false);
+      }
+    }
+  }
+
+  /**
+   * Encodes collected characters into bytes, writes bytes into channel when they don't fit.
+   */
+  private void encodeChars(boolean endOfInput) throws IOException {
+    CharBuffer charBuffer = CharBuffer.wrap(chars, 0, charsLength);
+    while (true) {
+      CoderResult result = encoder.encode(charBuffer, bytes, endOfInput);
+      if (result.isUnderflow()) {
+        break;
+      }
+      if (result.isOverflow()) {
+        writeBytes();
+        continue;
+      }
+      result.throwException();
+    }
+    // keep not encoded characters, i.e. high surrogate of a pair
+    charsLength = charBuffer.remaining();
+    System.arraycopy(chars, charBuffer.position(), chars, 0, charsLength);
+  }
+
+  private void writeBytes() throws IOException {
+    bytes.flip();
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    bytes.clear();
+  }
+}
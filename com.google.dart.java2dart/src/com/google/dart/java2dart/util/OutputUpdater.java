@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.util;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.runtime.Assert;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Writes output files only if their content is changed, so that unchanged files keep their
+ * modification time and don't trigger rebuilds.
+ * <p>
+ * New content is written into a temporary file in the same folder and hashed while written. Then
+ * temporary file is either renamed to the output file, or deleted if the output file has the same
+ * length and hash. Hash of the output file is taken from the optional hashes file, if length and
+ * modification time of the output file are the same as recorded, otherwise it is read.
+ * <p>
+ * Output files recorded in the hashes file, but not updated during this run, are stale, for example
+ * because their Java source was deleted, and are deleted by {@link #deleteStale()}.
+ * <p>
+ * Not thread-safe.
+ */
+public class OutputUpdater {
+  /**
+   * Recorded hash of the output file.
+   */
+  private static class FileHash {
+    private final String hash;
+    private final long length;
+    private final long modified;
+
+    FileHash(String hash, long length, long modified) {
+      this.hash = hash;
+      this.length = length;
+      this.modified = modified;
+    }
+  }
+
+  /**
+   * Channel of the temporary file, which hashes written bytes.
+   */
+  private static class HashingChannel implements WritableByteChannel {
+    private final File tempFile;
+    private final FileChannel channel;
+    private final MessageDigest digest = newDigest();
+    private long length;
+
+    HashingChannel(File tempFile) throws IOException {
+      this.tempFile = tempFile;
+      this.channel = new FileOutputStream(tempFile).getChannel();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      ByteBuffer writtenBytes = src.duplicate();
+      int count = channel.write(src);
+      writtenBytes.limit(writtenBytes.position() + count);
+      digest.update(writtenBytes);
+      length += count;
+      return count;
+    }
+  }
+
+  private static String getHash(File file) throws IOException {
+    return toHex(Files.hash(file, Hashing.md5()).asBytes());
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw ExecutionUtils.propagate(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    return String.format("%0" + bytes.length * 2 + "x", new BigInteger(1, bytes));
+  }
+
+  private final File hashesFile;
+  private final String hashesFolderPath;
+  private final Map<String, FileHash> hashes = Maps.newTreeMap();
+  private final Set<String> updatedKeys = Sets.newHashSet();
+  private final Map<File, HashingChannel> openChannels = Maps.newHashMap();
+  private int writtenCount;
+  private int skippedCount;
+  private int deletedCount;
+
+  /**
+   * @param hashesFile the file to load and save hashes of output files in its folder, may be
+   *          <code>null</code>, then existing output files are always read.
+   */
+  public OutputUpdater(File hashesFile) throws IOException {
+    this.hashesFile = hashesFile;
+    this.hashesFolderPath = hashesFile != null ? hashesFile.getAbsoluteFile().getParent()
+        + File.separator : null;
+    if (hashesFile != null && hashesFile.isFile()) {
+      List<String> lines = Files.readLines(hashesFile, Charsets.UTF_8);
+      for (String line : lines) {
+        String[] parts = StringUtils.split(line, " ", 4);
+        if (parts.length == 4) {
+          FileHash fileHash = new FileHash(
+              parts[0],
+              Long.parseLong(parts[1]),
+              Long.parseLong(parts[2]));
+          hashes.put(parts[3], fileHash);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes output files which are recorded in the hashes file, but were not updated since this
+   * {@link OutputUpdater} was created. Should be called after updating all output files.
+   */
+  public void deleteStale() throws IOException {
+    if (hashesFile != null) {
+      for (Iterator<String> iter = hashes.keySet().iterator(); iter.hasNext();) {
+        String key = iter.next();
+        if (!updatedKeys.contains(key)) {
+          File file = new File(hashesFolderPath + key.replace('/', File.separatorChar));
+          if (file.isFile() && !file.delete()) {
+            throw new IOException("Cannot delete " + file);
+          }
+          iter.remove();
+          deletedCount++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Closes the channel opened for the given output file and deletes its temporary file, keeping the
+   * output file unchanged. Should be called if new content cannot be written. Does nothing if the
+   * file is not open, for example because {@link #update(File)} was already called.
+   */
+  public void discard(File file) throws IOException {
+    HashingChannel channel = openChannels.remove(file);
+    if (channel != null) {
+      try {
+        channel.close();
+      } finally {
+        channel.tempFile.delete();
+      }
+    }
+  }
+
+  /**
+   * @return the number of stale output files deleted by {@link #deleteStale()}.
+   */
+  public int getDeletedCount() {
+    return deletedCount;
+  }
+
+  /**
+   * @return the number of output files which were not written, because their content is the same.
+   */
+  public int getSkippedCount() {
+    return skippedCount;
+  }
+
+  /**
+   * @return the number of written output files.
+   */
+  public int getWrittenCount() {
+    return writtenCount;
+  }
+
+  /**
+   * Opens channel to write new content of the given output file into. When channel is closed,
+   * {@link #update(File)} should be called, or {@link #discard(File)} if writing failed.
+   */
+  public WritableByteChannel open(File file) throws IOException {
+    Assert.isLegal(!openChannels.containsKey(file), "File '" + file + "' is already open.");
+    Files.createParentDirs(file);
+    File folder = file.getAbsoluteFile().getParentFile();
+    File tempFile = File.createTempFile(file.getName(), ".tmp", folder);
+    boolean success = false;
+    try {
+      HashingChannel channel = new HashingChannel(tempFile);
+      openChannels.put(file, channel);
+      success = true;
+      return channel;
+    } finally {
+      if (!success) {
+        tempFile.delete();
+      }
+    }
+  }
+
+  /**
+   * Saves hashes of output files into the hashes file, if it was specified.
+   */
+  public void saveHashes() throws IOException {
+    if (hashesFile != null) {
+      StringBuilder sb = new StringBuilder();
+      for (Entry<String, FileHash> entry : hashes.entrySet()) {
+        FileHash fileHash = entry.getValue();
+        sb.append(fileHash.hash).append(' ');
+        sb.append(fileHash.length).append(' ');
+        sb.append(fileHash.modified).append(' ');
+        sb.append(entry.getKey()).append('\n');
+      }
+      Files.write(sb, hashesFile, Charsets.UTF_8);
+    }
+  }
+
+  /**
+   * Replaces the given output file with its new content, if it is changed.
+   * 
+   * @return <code>true</code> if file was written, <code>false</code> if it was skipped.
+   */
+  public boolean update(File file) throws IOException {
+    HashingChannel channel = openChannels.remove(file);
+    Assert.isLegal(channel != null, "File '" + file + "' is not open.");
+    String key = getKey(file);
+    if (key != null) {
+      updatedKeys.add(key);
+    }
+    try {
+      channel.close();
+      String newHash = toHex(channel.digest.digest());
+      // same length and hash, keep old file
+      if (file.isFile() && file.length() == channel.length) {
+        String oldHash;
+        FileHash fileHash = key != null ? hashes.get(key) : null;
+        if (fileHash != null && fileHash.length == file.length()
+            && fileHash.modified == file.lastModified()) {
+          oldHash = fileHash.hash;
+        } else {
+          oldHash = getHash(file);
+        }
+        if (oldHash.equals(newHash)) {
+          putHash(key, file, newHash);
+          skippedCount++;
+          return false;
+        }
+      }
+      // replace old file, atomically where rename over existing file is supported
+      if (!channel.tempFile.renameTo(file)) {
+        file.delete();
+        if (!channel.tempFile.renameTo(file)) {
+          throw new IOException("Cannot rename " + channel.tempFile + " to " + file);
+        }
+      }
+      putHash(key, file, newHash);
+      writtenCount++;
+      return true;
+    } finally {
+      // not renamed, or failed
+      if (channel.tempFile.exists()) {
+        channel.tempFile.delete();
+      }
+    }
+  }
+
+  /**
+   * @return the key of the given file in the hashes file, may be <code>null</code> if hashes are
+   *         not recorded or file is not in the folder of the hashes file.
+   */
+  private String getKey(File file) {
+    if (hashesFolderPath != null) {
+      String path = file.getAbsolutePath();
+      if (path.startsWith(hashesFolderPath)) {
+        return path.substring(hashesFolderPath.length()).replace(File.separatorChar, '/');
+      }
+    }
+    return null;
+  }
+
+  private void putHash(String key, File file, String hash) {
+    if (key != null) {
+      hashes.put(key, new FileHash(hash, file.length(), file.lastModified()));
+    }
+  }
+}
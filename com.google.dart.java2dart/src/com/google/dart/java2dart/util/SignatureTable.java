@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.eclipse.core.runtime.Assert;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of interned JDT signatures. Each signature has a dense <code>int</code> identifier, so
+ * information about signatures can be kept in arrays indexed by identifier, instead of maps keyed
+ * by signature strings. Identifier of a signature does not change when it is renamed.
+ */
+public class SignatureTable {
+  private final Map<String, Integer> signatureToId = Maps.newHashMap();
+  private final List<String> signatures = Lists.newArrayList();
+
+  /**
+   * @return the identifier of the given signature, or <code>-1</code> if it is not in this table.
+   */
+  public int find(String signature) {
+    Integer id = signatureToId.get(signature);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * @return the signature with the given identifier.
+   */
+  public String get(int id) {
+    return signatures.get(id);
+  }
+
+  /**
+   * @return the identifier of the given signature, new identifier (equal to the previous
+   *         {@link #size()}) if this signature is not in this table yet.
+   */
+  public int intern(String signature) {
+    Integer id = signatureToId.get(signature);
+    if (id == null) {
+      id = signatures.size();
+      signatures.add(signature);
+      signatureToId.put(signature, id);
+    }
+    return id;
+  }
+
+  /**
+   * Changes signature with the given identifier.
+   */
+  public void rename(int id, String newSignature) {
+    Assert.isLegal(!signatureToId.containsKey(newSignature), "Signature '" + newSignature
+        + "' is already used.");
+    String oldSignature = signatures.get(id);
+    signatureToId.remove(oldSignature);
+    signatureToId.put(newSignature, id);
+    signatures.set(id, newSignature);
+  }
+
+  /**
+   * @return the number of signatures in this table.
+   */
+  public int size() {
+    return signatures.size();
+  }
+}
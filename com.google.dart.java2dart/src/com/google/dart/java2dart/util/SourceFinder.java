@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.eclipse.core.runtime.Assert;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Finds Java source files in a folder, optionally filtered by include and exclude glob patterns.
+ * <p>
+ * Patterns are matched against path relative to the folder, with <code>/</code> as separator.
+ * <code>*</code> matches any characters except <code>/</code>, <code>**</code> matches any
+ * characters, <code>?</code> matches single character except <code>/</code>. If there are include
+ * patterns, file should match one of them. If folder matches an exclude pattern, it is not visited.
+ * <p>
+ * Folders of the same depth are listed in parallel, result is assembled in order of
+ * {@link File#compareTo(File)}, so it does not need to be sorted.
+ */
+public class SourceFinder {
+  /**
+   * Result of listing a single folder.
+   */
+  private static class Listing {
+    private final List<File> folders = Lists.newArrayList();
+    /**
+     * Sub-folders and source files, in order of their paths.
+     */
+    private final List<File> entries = Lists.newArrayList();
+  }
+
+  /**
+   * @return the {@link Pattern} for the given glob.
+   */
+  static Pattern compileGlob(String glob) {
+    StringBuilder regex = new StringBuilder();
+    int length = glob.length();
+    for (int i = 0; i < length; i++) {
+      char c = glob.charAt(i);
+      if (c == '*') {
+        if (i + 1 < length && glob.charAt(i + 1) == '*') {
+          if (i + 2 < length && glob.charAt(i + 2) == '/') {
+            regex.append("(?:.*/)?");
+            i += 2;
+          } else {
+            regex.append(".*");
+            i++;
+          }
+        } else {
+          regex.append("[^/]*");
+        }
+      } else if (c == '?') {
+        regex.append("[^/]");
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  private static boolean matches(List<Pattern> patterns, String path) {
+    for (Pattern pattern : patterns) {
+      if (pattern.matcher(path).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private final int parallelism;
+  private final List<Pattern> includes = Lists.newArrayList();
+  private final List<Pattern> excludes = Lists.newArrayList();
+
+  public SourceFinder(int parallelism) {
+    Assert.isLegal(parallelism > 0, "Parallelism should be positive: " + parallelism);
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Specifies that files matching given glob should not be found, and folders matching it should
+   * not be visited.
+   */
+  public void addExclude(String glob) {
+    excludes.add(compileGlob(glob));
+  }
+
+  /**
+   * Specifies that files matching given glob should be found.
+   */
+  public void addInclude(String glob) {
+    includes.add(compileGlob(glob));
+  }
+
+  /**
+   * @return the Java source files in the given folder and its sub-folders, sorted.
+   */
+  public List<File> find(final File folder) throws Exception {
+    final int prefixLength = folder.getPath().length() + 1;
+    Map<File, Listing> listings = Maps.newHashMap();
+    // list folders, level by level
+    ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+    try {
+      List<File> level = Collections.singletonList(folder);
+      while (!level.isEmpty()) {
+        List<Callable<Listing>> tasks = Lists.newArrayList();
+        for (final File levelFolder : level) {
+          tasks.add(new Callable<Listing>() {
+            @Override
+            public Listing call() throws Exception {
+              return list(levelFolder, prefixLength);
+            }
+          });
+        }
+        List<File> nextLevel = Lists.newArrayList();
+        if (executor != null && tasks.size() > 1) {
+          List<Future<Listing>> futures = executor.invokeAll(tasks);
+          for (int i = 0; i < futures.size(); i++) {
+            Listing listing;
+            try {
+              listing = futures.get(i).get();
+            } catch (ExecutionException e) {
+              throw ExecutionUtils.propagate(e.getCause());
+            }
+            listings.put(level.get(i), listing);
+            nextLevel.addAll(listing.folders);
+          }
+        } else {
+          for (int i = 0; i < tasks.size(); i++) {
+            Listing listing = tasks.get(i).call();
+            listings.put(level.get(i), listing);
+            nextLevel.addAll(listing.folders);
+          }
+        }
+        level = nextLevel;
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+    // assemble files in order of paths
+    List<File> files = Lists.newArrayList();
+    addFiles(files, listings, folder);
+    return files;
+  }
+
+  /**
+   * Adds files from the given folder and its sub-folders.
+   */
+  private void addFiles(List<File> files, Map<File, Listing> listings, File folder) {
+    Listing listing = listings.get(folder);
+    for (File entry : listing.entries) {
+      if (listings.containsKey(entry)) {
+        addFiles(files, listings, entry);
+      } else {
+        files.add(entry);
+      }
+    }
+  }
+
+  /**
+   * @return the sub-folders and source files in the given folder.
+   */
+  private Listing list(File folder, int prefixLength) {
+    Listing listing = new Listing();
+    File[] children = folder.listFiles();
+    if (children == null) {
+      return listing;
+    }
+    // order entries as their paths, i.e. folder name is followed by separator
+    Map<String, File> keyToEntry = Maps.newTreeMap();
+    for (File child : children) {
+      String path = child.getPath().substring(prefixLength).replace(File.separatorChar, '/');
+      if (matches(excludes, path)) {
+        continue;
+      }
+      if (child.isDirectory()) {
+        listing.folders.add(child);
+        keyToEntry.put(child.getName() + File.separator, child);
+      } else if (child.getName().endsWith(".java") && child.isFile()) {
+        if (includes.isEmpty() || matches(includes, path)) {
+          keyToEntry.put(child.getName(), child);
+        }
+      }
+    }
+    listing.entries.addAll(keyToEntry.values());
+    return listing;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.util;
+
+import org.apache.commons.io.Charsets;
+import org.eclipse.core.runtime.Assert;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 source files into <code>char[]</code>, without intermediate {@link String}.
+ * <p>
+ * Bytes are read into a reusable buffer (or memory-mapped for large files) and decoded directly
+ * into array of the maximal possible length. For ASCII sources this array has exactly the length of
+ * the file and is returned as is, otherwise it is trimmed. Malformed input is replaced, as with
+ * {@link String} decoding.
+ * <p>
+ * Not thread-safe, each thread should use its own {@link SourceReader}.
+ */
+public class SourceReader {
+  /**
+   * Files of this size and larger are memory-mapped instead of reading into the buffer.
+   */
+  private static final int MAP_THRESHOLD = 1 << 20;
+
+  private final CharsetDecoder decoder = Charsets.UTF_8.newDecoder().onMalformedInput(
+      CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+  private int bytesRead;
+  private long decodeTime;
+
+  /**
+   * @return the number of bytes in the last read file.
+   */
+  public int getBytesRead() {
+    return bytesRead;
+  }
+
+  /**
+   * @return the time in nanoseconds spent to decode the last read file.
+   */
+  public long getDecodeTime() {
+    return decodeTime;
+  }
+
+  /**
+   * @return the decoded content of the given {@link File}.
+   */
+  public char[] read(File file) throws IOException {
+    FileInputStream stream = new FileInputStream(file);
+    try {
+      FileChannel channel = stream.getChannel();
+      long size = channel.size();
+      Assert.isLegal(size <= Integer.MAX_VALUE, "File '" + file + "' is too large.");
+      ByteBuffer bytes;
+      if (size >= MAP_THRESHOLD) {
+        bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } else {
+        bytes = getBuffer((int) size);
+        while (bytes.hasRemaining() && channel.read(bytes) != -1) {
+        }
+        bytes.flip();
+      }
+      bytesRead = bytes.remaining();
+      long decodeStart = System.nanoTime();
+      char[] chars = decode(bytes);
+      decodeTime = System.nanoTime() - decodeStart;
+      return chars;
+    } finally {
+      stream.close();
+    }
+  }
+
+  private char[] decode(ByteBuffer bytes) throws IOException {
+    int maxLength = (int) (bytes.remaining() * (double) decoder.maxCharsPerByte());
+    char[] chars = new char[maxLength];
+    CharBuffer charBuffer = CharBuffer.wrap(chars);
+    decoder.reset();
+    CoderResult result = decoder.decode(bytes, charBuffer, true);
+    if (!result.isUnderflow()) {
+      result.throwException();
+    }
+    result = decoder.flush(charBuffer);
+    if (!result.isUnderflow()) {
+      result.throwException();
+    }
+    int length = charBuffer.position();
+    return length == chars.length ? chars : Arrays.copyOf(chars, length);
+  }
+
+  /**
+   * @return the reusable buffer with the given limit.
+   */
+  private ByteBuffer getBuffer(int size) {
+    if (buffer.capacity() < size) {
+      buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+    }
+    buffer.clear();
+    buffer.limit(size);
+    return buffer;
+  }
+}
@@ -129,6 +129,29 @@ import java.io.PrintWriter;
  * AST node (and all of it's children) to a writer.
  */
 public class ToFormattedSourceVisitor implements ASTVisitor<Void> {
+  /**
+   * Indentation strings for the levels <code>0, 2, 4...</code>, so that changing of the level does
+   * not create new {@link String}.
+   */
+  private static final String[] INDENTS = new String[32];
+
+  static {
+    for (int i = 0; i < INDENTS.length; i++) {
+      INDENTS[i] = StringUtils.repeat(' ', i * 2);
+    }
+  }
+
+  /**
+   * @return the indentation string for the given level.
+   */
+  private static String getIndentString(int indentLevel) {
+    int index = indentLevel / 2;
+    if (index < INDENTS.length) {
+      return INDENTS[index];
+    }
+    return StringUtils.repeat(' ', indentLevel);
+  }
+
   /**
    * The writer to which the source is to be written.
    */
@@ -1048,16 +1071,16 @@ public class ToFormattedSourceVisitor implements ASTVisitor<Void> {
 
   private void indentDec() {
     indentLevel -= 2;
-    indentString = StringUtils.repeat(" ", indentLevel);
+    indentString = getIndentString(indentLevel);
   }
 
   private void indentInc() {
     indentLevel += 2;
-    indentString = StringUtils.repeat(" ", indentLevel);
+    indentString = getIndentString(indentLevel);
   }
 
   private void nl() {
-    writer.print("\n");
+    writer.print('\n');
   }
 
   private void nl2() {
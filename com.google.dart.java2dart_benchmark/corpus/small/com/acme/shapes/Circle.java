@@ -0,0 +1,24 @@
+package com.acme.shapes;
+
+public class Circle extends Shape {
+  private final double radius;
+
+  public Circle(double radius) {
+    super("circle");
+    this.radius = radius;
+  }
+
+  @Override
+  public double area() {
+    return Math.PI * radius * radius;
+  }
+
+  public double getRadius() {
+    return radius;
+  }
+
+  @Override
+  public double perimeter() {
+    return 2 * Math.PI * radius;
+  }
+}
@@ -0,0 +1,9 @@
+package com.acme.shapes;
+
+public enum Kind {
+  CIRCLE, RECTANGLE, SQUARE;
+
+  public boolean isRound() {
+    return this == CIRCLE;
+  }
+}
@@ -0,0 +1,38 @@
+package com.acme.shapes;
+
+public class Rectangle extends Shape {
+  private final double width;
+  private final double height;
+
+  public Rectangle(double width, double height) {
+    super("rectangle");
+    this.width = width;
+    this.height = height;
+  }
+
+  public Rectangle(double side) {
+    this(side, side);
+  }
+
+  @Override
+  public double area() {
+    return width * height;
+  }
+
+  public double getHeight() {
+    return height;
+  }
+
+  public double getWidth() {
+    return width;
+  }
+
+  public boolean isSquare() {
+    return width == height;
+  }
+
+  @Override
+  public double perimeter() {
+    return 2 * (width + height);
+  }
+}
@@ -0,0 +1,40 @@
+package com.acme.shapes;
+
+/**
+ * Base class of all shapes.
+ */
+public abstract class Shape {
+  private final String name;
+  protected int color;
+
+  protected Shape(String name) {
+    this.name = name;
+  }
+
+  public abstract double area();
+
+  public int getColor() {
+    return color;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public double perimeter() {
+    return 0;
+  }
+
+  public void setColor(int color) {
+    this.color = color;
+  }
+
+  public void setColor(int red, int green, int blue) {
+    this.color = (red << 16) | (green << 8) | blue;
+  }
+
+  @Override
+  public String toString() {
+    return name + "[area=" + area() + ", perimeter=" + perimeter() + "]";
+  }
+}
@@ -0,0 +1,76 @@
+package com.acme.shapes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilities for the lists of {@link Shape}s.
+ */
+public class Shapes {
+  public static final int MAX_SHAPES = 1000;
+
+  public static Shape create(Kind kind, double size) {
+    switch (kind) {
+      case CIRCLE:
+        return new Circle(size / 2);
+      case RECTANGLE:
+        return new Rectangle(size, size * 2);
+      case SQUARE:
+        return new Rectangle(size);
+      default:
+        throw new IllegalArgumentException("Unknown kind: " + kind);
+    }
+  }
+
+  public static List<Shape> createAll(int count) {
+    List<Shape> shapes = new ArrayList<Shape>();
+    Kind[] kinds = Kind.values();
+    for (int i = 0; i < count && i < MAX_SHAPES; i++) {
+      Shape shape = create(kinds[i % kinds.length], i + 1);
+      shape.setColor(i & 0xFF, (i >> 8) & 0xFF, 0);
+      shapes.add(shape);
+    }
+    return shapes;
+  }
+
+  public static Map<String, Integer> countByName(List<Shape> shapes) {
+    Map<String, Integer> counts = new HashMap<String, Integer>();
+    for (Shape shape : shapes) {
+      Integer count = counts.get(shape.getName());
+      counts.put(shape.getName(), count != null ? count + 1 : 1);
+    }
+    return counts;
+  }
+
+  public static Shape largest(List<Shape> shapes) {
+    Shape result = null;
+    for (Shape shape : shapes) {
+      if (result == null || shape.area() > result.area()) {
+        result = shape;
+      }
+    }
+    return result;
+  }
+
+  public static double totalArea(List<Shape> shapes) {
+    double total = 0;
+    int index = 0;
+    while (index < shapes.size()) {
+      total += shapes.get(index++).area();
+    }
+    return total;
+  }
+
+  public static double totalArea(Shape[] shapes) {
+    double total = 0;
+    for (int i = 0; i < shapes.length; i++) {
+      total += shapes[i].area();
+    }
+    return total;
+  }
+
+  private Shapes() {
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.dart.java2dart.Context;
+import com.google.dart.java2dart.util.SourceFinder;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corpus of Java sources to translate in benchmarks.
+ * <p>
+ * Corpus is a source folder, either fixed one in the "corpus" folder (or in the folder specified by
+ * the "java2dart.corpus" system property), or generated by {@link CorpusGenerator}.
+ */
+public class BenchmarkCorpus {
+  /**
+   * @return the source folder of the corpus with the given name.
+   */
+  public static File getFolder(String name) {
+    File corporaFolder = new File(System.getProperty("java2dart.corpus", "corpus"));
+    File folder = new File(corporaFolder, name);
+    Assert.isLegal(folder.isDirectory(), "Corpus '" + name + "' not found in " + corporaFolder);
+    return folder;
+  }
+
+  private final File folder;
+  private final List<File> files;
+
+  public BenchmarkCorpus(File folder) throws Exception {
+    this.folder = folder;
+    this.files = new SourceFinder(1).find(folder);
+  }
+
+  public BenchmarkCorpus(String name) throws Exception {
+    this(getFolder(name));
+  }
+
+  /**
+   * @return the Java source files of this corpus, sorted.
+   */
+  public List<File> getFiles() {
+    return files;
+  }
+
+  /**
+   * @return the new {@link Context} configured to translate all files of this corpus.
+   */
+  public Context newContext() {
+    Context context = new Context();
+    context.addSourceFolder(folder);
+    context.addSourceFiles(folder);
+    return context;
+  }
+
+  /**
+   * @return the resolved JDT units of all files of this corpus, in the same order as files.
+   */
+  public CompilationUnit[] parse() {
+    final CompilationUnit[] units = new CompilationUnit[files.size()];
+    final Map<String, Integer> pathToIndex = Maps.newHashMap();
+    String[] paths = new String[files.size()];
+    for (int i = 0; i < paths.length; i++) {
+      paths[i] = files.get(i).getAbsolutePath();
+      pathToIndex.put(paths[i], i);
+    }
+    // same parser configuration as in Context
+    ASTParser parser = ASTParser.newParser(AST.JLS4);
+    parser.setEnvironment(null, new String[] {folder.getAbsolutePath()}, null, true);
+    parser.setResolveBindings(true);
+    parser.setCompilerOptions(ImmutableMap.of(
+        JavaCore.COMPILER_SOURCE,
+        JavaCore.VERSION_1_5,
+        JavaCore.COMPILER_DOC_COMMENT_SUPPORT,
+        JavaCore.ENABLED));
+    parser.createASTs(paths, null, ArrayUtils.EMPTY_STRING_ARRAY, new FileASTRequestor() {
+      @Override
+      public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+        units[pathToIndex.get(sourceFilePath)] = ast;
+      }
+    }, null);
+    return units;
+  }
+}
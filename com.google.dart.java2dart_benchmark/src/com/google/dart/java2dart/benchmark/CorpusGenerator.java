@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.common.io.Files;
+
+import org.apache.commons.io.Charsets;
+import org.eclipse.core.runtime.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Generates deterministic trees of Java sources, to benchmark translation of corpora of any size.
+ * <p>
+ * Each package has classes <code>C0</code>, <code>C1</code>, etc and enums <code>E0</code>,
+ * <code>E1</code>, etc. Classes form hierarchies of the given depth, 4 by default, every class
+ * except the first of each hierarchy extends the previous one, also in the previous package. Each class has a field, a static method <code>s</code> and instance methods
+ * <code>m0</code>, <code>m1</code>, etc. Method body is an expression tree of the given depth, and
+ * calls of static methods of random classes in other files. Some methods are overloads of the
+ * previous method. The same seed and parameters always give the same sources.
+ */
+public class CorpusGenerator {
+  private static final String[] OPERATORS = {"+", "-", "*", "&", "|", "^"};
+  private static final String[] OVERLOAD_PARAMETERS = {
+      "int a, int b",
+      "long a, int b",
+      "int a, long b",
+      "long a, long b"};
+  private static final int FILES_PER_PACKAGE = 100;
+
+  private long seed;
+  private int packageCount = 1;
+  private int classCount = 10;
+  private int methodCount = 5;
+  private int expressionDepth = 3;
+  private double overloadDensity = 0.2;
+  private int enumCount = 1;
+  private int crossReferenceCount = 2;
+  private int hierarchyDepth = 4;
+  private Random random;
+
+  /**
+   * Generates sources into the given folder.
+   * 
+   * @return the number of generated files.
+   */
+  public int generate(File folder) throws IOException {
+    random = new Random(seed);
+    int fileCount = 0;
+    for (int packageIndex = 0; packageIndex < packageCount; packageIndex++) {
+      File packageFolder = new File(folder, "p" + packageIndex);
+      for (int classIndex = 0; classIndex < classCount; classIndex++) {
+        String source = generateClass(packageIndex, classIndex);
+        writeFile(new File(packageFolder, "C" + classIndex + ".java"), source);
+        fileCount++;
+      }
+      for (int enumIndex = 0; enumIndex < enumCount; enumIndex++) {
+        String source = generateEnum(packageIndex, enumIndex);
+        writeFile(new File(packageFolder, "E" + enumIndex + ".java"), source);
+        fileCount++;
+      }
+    }
+    return fileCount;
+  }
+
+  /**
+   * Sets the number of classes in each package.
+   */
+  public void setClassCount(int classCount) {
+    Assert.isLegal(classCount > 0, "Class count should be positive: " + classCount);
+    this.classCount = classCount;
+  }
+
+  /**
+   * Sets the number of calls of static methods of random classes in each method.
+   */
+  public void setCrossReferenceCount(int crossReferenceCount) {
+    this.crossReferenceCount = crossReferenceCount;
+  }
+
+  /**
+   * Sets the number of enums in each package.
+   */
+  public void setEnumCount(int enumCount) {
+    this.enumCount = enumCount;
+  }
+
+  /**
+   * Sets the depth of the expression tree in each method.
+   */
+  public void setExpressionDepth(int expressionDepth) {
+    this.expressionDepth = expressionDepth;
+  }
+
+  /**
+   * Sets the number of packages and classes to generate approximately the given number of files, at
+   * most {@value #FILES_PER_PACKAGE} in each package.
+   */
+  public void setFileCount(int fileCount) {
+    Assert.isLegal(fileCount > 0, "File count should be positive: " + fileCount);
+    packageCount = (fileCount + FILES_PER_PACKAGE - 1) / FILES_PER_PACKAGE;
+    classCount = Math.max(1, fileCount / packageCount - enumCount);
+  }
+
+  /**
+   * Sets the number of classes in each hierarchy, i.e. the length of the "extends" chain.
+   */
+  public void setHierarchyDepth(int hierarchyDepth) {
+    Assert.isLegal(hierarchyDepth > 0, "Hierarchy depth should be positive: " + hierarchyDepth);
+    this.hierarchyDepth = hierarchyDepth;
+  }
+
+  /**
+   * Sets the number of instance methods in each class.
+   */
+  public void setMethodCount(int methodCount) {
+    this.methodCount = methodCount;
+  }
+
+  /**
+   * Sets the probability that method is overload of the previous method.
+   */
+  public void setOverloadDensity(double overloadDensity) {
+    Assert.isLegal(overloadDensity >= 0 && overloadDensity <= 1, "Overload density should be in "
+        + "[0, 1]: " + overloadDensity);
+    this.overloadDensity = overloadDensity;
+  }
+
+  /**
+   * Sets the number of packages.
+   */
+  public void setPackageCount(int packageCount) {
+    this.packageCount = packageCount;
+  }
+
+  /**
+   * Sets the seed of the random generator.
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  private void appendExpression(StringBuilder sb, int depth) {
+    if (depth == 0) {
+      switch (random.nextInt(5)) {
+        case 0:
+          sb.append("a");
+          break;
+        case 1:
+          sb.append("b");
+          break;
+        case 2:
+          sb.append("field");
+          break;
+        case 3:
+          if (enumCount != 0) {
+            sb.append("E").append(random.nextInt(enumCount)).append(".V");
+            sb.append(random.nextInt(3)).append(".ordinal()");
+            break;
+          }
+          // no enums, use literal
+        default:
+          sb.append(random.nextInt(1000));
+          break;
+      }
+      return;
+    }
+    sb.append("(");
+    appendExpression(sb, depth - 1);
+    sb.append(" ").append(OPERATORS[random.nextInt(OPERATORS.length)]).append(" ");
+    appendExpression(sb, depth - 1);
+    sb.append(")");
+  }
+
+  private String generateClass(int packageIndex, int classIndex) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("package p").append(packageIndex).append(";\n");
+    sb.append("\n");
+    sb.append("public class C").append(classIndex);
+    int globalIndex = packageIndex * classCount + classIndex;
+    if (globalIndex % hierarchyDepth != 0) {
+      if (classIndex != 0) {
+        sb.append(" extends C").append(classIndex - 1);
+      } else {
+        sb.append(" extends p").append(packageIndex - 1).append(".C").append(classCount - 1);
+      }
+    }
+    sb.append(" {\n");
+    sb.append("  protected int field = ").append(classIndex).append(";\n");
+    sb.append("\n");
+    sb.append("  public static int s(int p) {\n");
+    sb.append("    return p + ").append(classIndex).append(";\n");
+    sb.append("  }\n");
+    // instance methods, some are overloads of the previous one
+    int nameIndex = -1;
+    int overloadIndex = 0;
+    for (int methodIndex = 0; methodIndex < methodCount; methodIndex++) {
+      boolean overload = nameIndex != -1 && overloadIndex + 1 < OVERLOAD_PARAMETERS.length
+          && random.nextDouble() < overloadDensity;
+      if (overload) {
+        overloadIndex++;
+      } else {
+        nameIndex++;
+        overloadIndex = 0;
+      }
+      sb.append("\n");
+      sb.append("  public int m").append(nameIndex).append("(");
+      sb.append(OVERLOAD_PARAMETERS[overloadIndex]).append(") {\n");
+      sb.append("    int result = (int) ");
+      appendExpression(sb, expressionDepth);
+      sb.append(";\n");
+      for (int i = 0; i < crossReferenceCount; i++) {
+        int targetPackage = random.nextInt(packageCount);
+        int targetClass = random.nextInt(classCount);
+        sb.append("    result += p").append(targetPackage).append(".C").append(targetClass);
+        sb.append(".s(result);\n");
+      }
+      sb.append("    return result;\n");
+      sb.append("  }\n");
+    }
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  private String generateEnum(int packageIndex, int enumIndex) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("package p").append(packageIndex).append(";\n");
+    sb.append("\n");
+    sb.append("public enum E").append(enumIndex).append(" {\n");
+    sb.append("  V0, V1, V2;\n");
+    sb.append("\n");
+    sb.append("  public int weight() {\n");
+    sb.append("    return ordinal() * ").append(enumIndex + 1).append(";\n");
+    sb.append("  }\n");
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  private void writeFile(File file, String source) throws IOException {
+    Files.createParentDirs(file);
+    Files.write(source, file, Charsets.UTF_8);
+  }
+}
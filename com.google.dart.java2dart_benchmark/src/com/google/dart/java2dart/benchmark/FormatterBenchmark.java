@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.utilities.io.PrintStringWriter;
+import com.google.dart.java2dart.util.ChannelWriter;
+import com.google.dart.java2dart.util.ToFormattedSourceVisitor;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures printing of all translated units of the corpus with {@link ToFormattedSourceVisitor}.
+ * Printing into {@link ChannelWriter} also reports the number of characters emitted per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FormatterBenchmark {
+  /**
+   * Number of printed characters, reported by JMH as rate.
+   */
+  @AuxCounters
+  @State(Scope.Thread)
+  public static class Counters {
+    public long chars;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      chars = 0;
+    }
+  }
+
+  /**
+   * {@link WritableByteChannel} which ignores all bytes.
+   */
+  private static class NullChannel implements WritableByteChannel {
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int length = src.remaining();
+      src.position(src.limit());
+      return length;
+    }
+  }
+
+  @Param({"small"})
+  public String corpus;
+
+  private Collection<CompilationUnit> dartUnits;
+
+  @Benchmark
+  public int format() {
+    int length = 0;
+    for (CompilationUnit dartUnit : dartUnits) {
+      PrintStringWriter writer = new PrintStringWriter();
+      dartUnit.accept(new ToFormattedSourceVisitor(writer));
+      length += writer.toString().length();
+    }
+    return length;
+  }
+
+  @Benchmark
+  public void formatToChannel(Counters counters) throws Exception {
+    ChannelWriter channelWriter = new ChannelWriter(new NullChannel());
+    PrintWriter writer = new PrintWriter(channelWriter);
+    for (CompilationUnit dartUnit : dartUnits) {
+      dartUnit.accept(new ToFormattedSourceVisitor(writer));
+    }
+    writer.flush();
+    counters.chars += channelWriter.getCharCount();
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    dartUnits = new BenchmarkCorpus(corpus).newContext().translateUnits().values();
+  }
+}
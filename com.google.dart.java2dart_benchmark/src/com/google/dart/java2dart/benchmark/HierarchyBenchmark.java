@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.common.io.Files;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.java2dart.Context;
+import com.google.dart.java2dart.TranslationStats;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time of {@link Context#translateUnits()} of the generated corpus with the same number
+ * of classes in hierarchies of growing depth, with overloaded methods in each class. Time of the
+ * unique names phase, i.e. of renaming overloaded methods through the hierarchies, is printed
+ * after each iteration, it should not grow with depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class HierarchyBenchmark {
+  @Param({"4", "40", "400", "4000"})
+  public int hierarchyDepth;
+
+  @Param({"4000"})
+  public int fileCount;
+
+  private File folder;
+  private BenchmarkCorpus benchmarkCorpus;
+  private TranslationStats stats;
+
+  @Setup
+  public void setUp() throws Exception {
+    folder = Files.createTempDir();
+    CorpusGenerator generator = new CorpusGenerator();
+    generator.setFileCount(fileCount);
+    generator.setEnumCount(0);
+    generator.setHierarchyDepth(hierarchyDepth);
+    generator.setOverloadDensity(0.5);
+    generator.generate(folder);
+    benchmarkCorpus = new BenchmarkCorpus(folder);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(folder);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDownIteration() {
+    if (stats != null) {
+      System.out.println("unique names: " + stats.getTime("unique names") + " ms, renames: "
+          + stats.getCount("unique name renames"));
+    }
+  }
+
+  @Benchmark
+  public Map<File, CompilationUnit> translateUnits() throws Exception {
+    Context context = benchmarkCorpus.newContext();
+    stats = new TranslationStats();
+    context.setStats(stats);
+    return context.translateUnits();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.common.io.Files;
+import com.google.dart.engine.ast.CompilationUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time of {@link com.google.dart.java2dart.Context#translateUnits()} of generated corpora
+ * of growing size. Use {@link ScalingReport} to see also growth of the retained heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ScalingBenchmark {
+  @Param({"10", "100", "1000", "10000", "100000"})
+  public int fileCount;
+
+  private File folder;
+  private BenchmarkCorpus benchmarkCorpus;
+
+  @Setup
+  public void setUp() throws Exception {
+    folder = Files.createTempDir();
+    CorpusGenerator generator = new CorpusGenerator();
+    generator.setFileCount(fileCount);
+    generator.generate(folder);
+    benchmarkCorpus = new BenchmarkCorpus(folder);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(folder);
+  }
+
+  @Benchmark
+  public Map<File, CompilationUnit> translateUnits() throws Exception {
+    return benchmarkCorpus.newContext().translateUnits();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.common.io.Files;
+import com.google.dart.engine.ast.CompilationUnit;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Prints how translation time and retained heap grow with the size of the generated corpus.
+ * Arguments are file counts, by default from 10 to 100000 files. Large corpora need large heap,
+ * for example <code>-Xmx4g</code>.
+ */
+public class ScalingReport {
+  public static void main(String[] args) throws Exception {
+    String[] fileCounts = args.length != 0 ? args : new String[] {
+        "10", "100", "1000", "10000", "100000"};
+    System.out.println("files\tunits\ttranslate ms\theap MB");
+    for (String fileCount : fileCounts) {
+      File folder = Files.createTempDir();
+      try {
+        CorpusGenerator generator = new CorpusGenerator();
+        generator.setFileCount(Integer.parseInt(fileCount));
+        int files = generator.generate(folder);
+        BenchmarkCorpus corpus = new BenchmarkCorpus(folder);
+        long heapBefore = getUsedHeap();
+        long start = System.nanoTime();
+        Map<File, CompilationUnit> dartUnits = corpus.newContext().translateUnits();
+        long time = (System.nanoTime() - start) / 1000000L;
+        // translated units are still referenced, so they are included
+        long heap = (getUsedHeap() - heapBefore) / (1024 * 1024);
+        System.out.println(files + "\t" + dartUnits.size() + "\t" + time + "\t" + heap);
+      } finally {
+        FileUtils.deleteDirectory(folder);
+      }
+    }
+  }
+
+  /**
+   * @return the used heap after full GC.
+   */
+  private static long getUsedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
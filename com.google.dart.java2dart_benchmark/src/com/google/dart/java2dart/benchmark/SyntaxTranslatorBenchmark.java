@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.benchmark;
+
+import com.google.dart.java2dart.Context;
+import com.google.dart.java2dart.SyntaxTranslator;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SyntaxTranslator#translate(Context, CompilationUnit)} of all units of the corpus,
+ * parsed once before measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SyntaxTranslatorBenchmark {
+  @Param({"small"})
+  public String corpus;
+
+  private BenchmarkCorpus benchmarkCorpus;
+  private CompilationUnit[] javaUnits;
+
+  @Setup
+  public void setUp() throws Exception {
+    benchmarkCorpus = new BenchmarkCorpus(corpus);
+    javaUnits = benchmarkCorpus.parse();
+  }
+
+  @Benchmark
+  public void translate(Blackhole blackhole) {
+    // new Context, it remembers references of all translated units
+    Context context = benchmarkCorpus.newContext();
+    for (CompilationUnit javaUnit : javaUnits) {
+      blackhole.consume(SyntaxTranslator.translate(context, javaUnit));
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.base.Joiner;
+import com.google.common.io.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+/**
+ * Test for {@link Main}.
+ */
+public class MainTest extends TestCase {
+  /**
+   * @return the single {@link String} with "\n" separated lines.
+   */
+  private static String toString(String... lines) {
+    return Joiner.on("\n").join(lines);
+  }
+
+  private File tmpFolder;
+
+  public void test_outputFolder() throws Exception {
+    setFileLines(
+        "src/test/A.java",
+        toString(
+            "package test;",
+            "public class A {",
+            "  int[] values;",
+            "}",
+            ""));
+    setFileLines(
+        "src/test/B.java",
+        toString(
+            "package test;",
+            "public class B {",
+            "  A a;",
+            "}",
+            ""));
+    setFileLines(
+        "test.j2d",
+        toString(
+            "src: " + new File(tmpFolder, "src"),
+            "outDir: " + new File(tmpFolder, "out"),
+            "arrays: typed",
+            "test",
+            ""));
+    translate("test.j2d");
+    // library with imports of all units
+    assertEquals(
+        toString(
+            "library out;",
+            "import 'dart:typed_data';",
+            "part 'test/A.dart';",
+            "part 'test/B.dart';"),
+        getFileContent("out/out.dart"));
+    // parts
+    String sourceA = getFileContent("out/test/A.dart");
+    assertTrue(sourceA, sourceA.startsWith("part of out;"));
+    assertTrue(sourceA, sourceA.contains("Int32List values;"));
+    assertFalse(sourceA, sourceA.contains("import"));
+    String sourceB = getFileContent("out/test/B.dart");
+    assertTrue(sourceB, sourceB.startsWith("part of out;"));
+    assertTrue(sourceB, sourceB.contains("A a;"));
+  }
+
+  public void test_outputFolder_samePath() throws Exception {
+    setFileLines("src/Main.java", "public class Main {}\n");
+    setFileLines("a/A.java", "public class A {}\n");
+    setFileLines("b/A.java", "public class A {}\n");
+    setFileLines(
+        "test.j2d",
+        toString(
+            "src: " + new File(tmpFolder, "src"),
+            "outDir: " + new File(tmpFolder, "out"),
+            new File(tmpFolder, "a/A.java").getPath(),
+            new File(tmpFolder, "b/A.java").getPath(),
+            ""));
+    try {
+      translate("test.j2d");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("cannot be both written into A.dart"));
+    }
+    assertFalse(new File(tmpFolder, "out/A.dart").exists());
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tmpFolder = Files.createTempDir();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtils.deleteDirectory(tmpFolder);
+    super.tearDown();
+  }
+
+  private String getFileContent(String path) throws Exception {
+    return Files.toString(new File(tmpFolder, path), Charsets.UTF_8);
+  }
+
+  private void setFileLines(String path, String content) throws Exception {
+    File file = new File(tmpFolder, path);
+    Files.createParentDirs(file);
+    Files.write(content, file, Charsets.UTF_8);
+  }
+
+  /**
+   * Translates using the configuration file with the given path.
+   */
+  private void translate(String configPath) throws Exception {
+    String configFile = new File(tmpFolder, configPath).getPath();
+    PrintStream out = new PrintStream(new ByteArrayOutputStream());
+    Config config = Config.from(new String[] {configFile}, out);
+    assertNotNull(config);
+    Main.translate(config, out);
+  }
+}
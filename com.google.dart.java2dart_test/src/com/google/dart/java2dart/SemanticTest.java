@@ -15,6 +15,7 @@
 package com.google.dart.java2dart;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.Files;
 import com.google.dart.engine.ast.ASTNode;
 import com.google.dart.engine.ast.CompilationUnit;
@@ -27,6 +28,7 @@ import org.apache.commons.io.Charsets;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
+import java.util.Map;
 
 /**
  * Test for general Java semantics to Dart translation.
@@ -51,6 +53,38 @@ public class SemanticTest extends TestCase {
 
   private File tmpFolder;
 
+  public void test_bindingCache() throws Exception {
+    setFileLines(
+        "test/Main.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Main {",
+            "  int value;",
+            "  void foo() {",
+            "    value = value + value;",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.addRename("Ltest/Main;.value", "bar");
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class Main {",
+            "  int bar;",
+            "  void foo() {",
+            "    bar = bar + bar;",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+    // "value" references reuse signature of its declaration
+    assertTrue(context.getBindingCacheHitCount() >= 3);
+    assertTrue(context.getBindingCacheMissCount() >= 3);
+  }
+
   public void test_buildSingleDartUnit() throws Exception {
     setFileLines(
         "test/Main.java",
@@ -62,13 +96,497 @@ public class SemanticTest extends TestCase {
             "}",
             ""));
     setFileLines(
-        "test/Second.java",
+        "test/Second.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Second {",
+            "  static void bar() {",
+            "    Main.foo();",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class Main {",
+            "  static void foo() {",
+            "  }",
+            "}",
+            "class Second {",
+            "  static void bar() {",
+            "    Main.foo();",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_buildSingleDartUnit_batchParsing() throws Exception {
+    setFileLines(
+        "test/Main.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Main {",
+            "  static void foo() {}",
+            "}",
+            ""));
+    setFileLines(
+        "test/Second.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Second {",
+            "  static void bar() {",
+            "    Main.foo();",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setBatchParsing(true);
+    context.addRename("Ltest/Main;.foo()", "baz");
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class Main {",
+            "  static void baz() {",
+            "  }",
+            "}",
+            "class Second {",
+            "  static void bar() {",
+            "    Main.baz();",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_buildSingleDartUnit_parallel() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      setFileLines(
+          "test/A" + i + ".java",
+          toString(
+              "// filler filler filler filler filler filler filler filler filler filler",
+              "package test;",
+              "public class A" + i + " {",
+              "  int foo;",
+              "  static void foo() {}",
+              "  static void foo(int p) {}",
+              "  static void bar() {",
+              "    A0.foo(" + i + ");",
+              "  }",
+              "}",
+              ""));
+    }
+    // sequential
+    String expected;
+    {
+      Context context = new Context();
+      context.addSourceFolder(tmpFolder);
+      context.addSourceFiles(tmpFolder);
+      context.addRename("Ltest/A0;.foo(I)", "fooWithInt");
+      expected = getFormattedSource(context.translate());
+    }
+    // parallel
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.addRename("Ltest/A0;.foo(I)", "fooWithInt");
+    context.setParallelism(4);
+    String actual = getFormattedSource(context.translate());
+    assertEquals(expected, actual);
+    assertTrue(actual.contains("A0.fooWithInt(9);"));
+  }
+
+  public void test_collapseGetters() throws Exception {
+    setFileLines(
+        "test/Test.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Test {",
+            "  private final int value;",
+            "  private final String name;",
+            "  private int counter;",
+            "  public Test(int value, String name) {",
+            "    this.value = value;",
+            "    this.name = name;",
+            "  }",
+            "  public int getValue() {",
+            "    return value;",
+            "  }",
+            "  public String name() {",
+            "    return this.name;",
+            "  }",
+            "  public int getCounter() {",
+            "    return counter;",
+            "  }",
+            "  public int foo(Test other) {",
+            "    bar(other.name());",
+            "    return getValue() + other.getValue() + getCounter();",
+            "  }",
+            "  static void bar(String s) {}",
+            "}",
+            ""));
+    TranslationStats stats = new TranslationStats();
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setStats(stats);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class Test {",
+            "  final int value;",
+            "  final String name;",
+            "  int counter;",
+            "  Test(int this.value, String this.name) {",
+            "  }",
+            "  int getCounter() {",
+            "    return counter;",
+            "  }",
+            "  int foo(Test other) {",
+            "    bar(other.name);",
+            "    return this.value + other.value + getCounter();",
+            "  }",
+            "  static void bar(String s) {",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+    assertEquals(2, stats.getCount("collapsed getters"));
+  }
+
+  public void test_collapseGetters_overridden() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  private final int value;",
+            "  public A(int value) {",
+            "    this.value = value;",
+            "  }",
+            "  public int getValue() {",
+            "    return value;",
+            "  }",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B extends A {",
+            "  public B() {",
+            "    super(1);",
+            "  }",
+            "  public int getValue() {",
+            "    return 2;",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class A {",
+            "  final int value;",
+            "  const A(int this.value);",
+            "  int getValue() {",
+            "    return value;",
+            "  }",
+            "}",
+            "class B extends A {",
+            "  B() : super(1) {",
+            "  }",
+            "  int getValue() {",
+            "    return 2;",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_collapseGetters_overridesLibrary() throws Exception {
+    setFileLines(
+        "test/MyException.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class MyException extends Exception {",
+            "  private final String message;",
+            "  public MyException(String message) {",
+            "    this.message = message;",
+            "  }",
+            "  public String getMessage() {",
+            "    return message;",
+            "  }",
+            "}",
+            ""));
+    TranslationStats stats = new TranslationStats();
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setStats(stats);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class MyException extends Exception {",
+            "  final String message;",
+            "  MyException(String this.message) {",
+            "  }",
+            "  String getMessage() {",
+            "    return message;",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+    assertEquals(0, stats.getCount("collapsed getters"));
+  }
+
+  public void test_configureRenameField() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  int foo;",
+            "  static void foo() {}",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static void bar() {",
+            "    print(A.foo);",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.addRename("Ltest/A;.foo", "myField");
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class A {",
+            "  int myField;",
+            "  static void foo() {",
+            "  }",
+            "}",
+            "class B {",
+            "  static void bar() {",
+            "    print(A.myField);",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_configureRenameMethod() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static void foo() {}",
+            "  static void foo(int p) {}",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static void bar() {",
+            "    A.foo(42);",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.addRename("Ltest/A;.foo(I)", "fooWithInt");
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class A {",
+            "  static void foo() {",
+            "  }",
+            "  static void fooWithInt(int p) {",
+            "  }",
+            "}",
+            "class B {",
+            "  static void bar() {",
+            "    A.fooWithInt(42);",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_configureRenamePattern() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static int getFoo() {return 1;}",
+            "  static int getBar() {return 2;}",
+            "  static int getBaz(int p) {return p;}",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static int bar() {",
+            "    return A.getFoo() + A.getBar();",
+            "  }",
+            "}",
+            ""));
+    File renameTable = setFileLines(
+        "renames.txt",
+        toString(
+            "# exact signature has priority over pattern",
+            "Ltest/A;.getBar() bar",
+            "Ltest/*;.get*() fetch$2",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.addRenames(renameTable);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class A {",
+            "  static int fetchFoo() {",
+            "    return 1;",
+            "  }",
+            "  static int bar() {",
+            "    return 2;",
+            "  }",
+            "  static int getBaz(int p) {",
+            "    return p;",
+            "  }",
+            "}",
+            "class B {",
+            "  static int bar() {",
+            "    return A.fetchFoo() + A.bar();",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_constantFields() throws Exception {
+    setFileLines(
+        "test/Test.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Test {",
+            "  static final int A = 1;",
+            "  static final int B = A * 10 + 2;",
+            "  static final String PREFIX = \"p$\";",
+            "  static final String NAME = PREFIX + \"name\" + B + '\\n';",
+            "  static final char C = (char) ('a' + 1);",
+            "  static final double D = 1.0 / 0.0;",
+            "  static final Object O = null;",
+            "  static final double EPS = 0;",
+            "  static final long H = 0x10;",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class Test {",
+            "  static const int A = 1;",
+            "  static const int B = 12;",
+            "  static const String PREFIX = \"p\\$\";",
+            "  static const String NAME = \"p\\$name12\\n\";",
+            "  static const int C = 0x62;",
+            "  static final double D = 1.0 / 0.0;",
+            "  static const Object O = null;",
+            "  static const double EPS = 0.0;",
+            "  static const int H = 16;",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_enum() throws Exception {
+    setFileLines(
+        "test/Test.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public enum Test {",
+            "  A, B;",
+            "  static int foo(Test p) {",
+            "    String n = p.name();",
+            "    switch (p) {",
+            "      case A:",
+            "        return p.ordinal();",
+            "      default:",
+            "        return values().length;",
+            "    }",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class Test {",
+            "  static const Test A = const Test(\"A\", 0);",
+            "  static const Test B = const Test(\"B\", 1);",
+            "  static const List<Test> values = const <Test> [A, B];",
+            "  final String name;",
+            "  final int ordinal;",
+            "  const Test(this.name, this.ordinal);",
+            "  static int foo(Test p) {",
+            "    String n = p.name;",
+            "    switch (p) {case Test.A: return p.ordinal; default: return values.length;}",
+            "  }",
+            "  String toString() {",
+            "    return name;",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_enum_conflictingNames() throws Exception {
+    setFileLines(
+        "test/Color.java",
         toString(
             "// filler filler filler filler filler filler filler filler filler filler",
             "package test;",
-            "public class Second {",
-            "  static void bar() {",
-            "    Main.foo();",
+            "public enum Color {",
+            "  RED(\"r\", \"R\");",
+            "  private final String name;",
+            "  private final String code;",
+            "  Color(String name, String ordinal) {",
+            "    this.name = name;",
+            "    this.code = ordinal;",
+            "  }",
+            "  String name(int i) {",
+            "    return name;",
             "  }",
             "}",
             ""));
@@ -78,69 +596,82 @@ public class SemanticTest extends TestCase {
     CompilationUnit unit = context.translate();
     assertEquals(
         toString(
-            "class Main {",
-            "  static void foo() {",
+            "class Color {",
+            "  static const Color RED = const Color(\"RED\", 0, \"r\", \"R\");",
+            "  static const List<Color> values = const <Color> [RED];",
+            "  final String name;",
+            "  final int ordinal;",
+            "  final String name3;",
+            "  final String code;",
+            "  const Color(this.name, this.ordinal, String this.name3, String ordinal2)"
+                + " : code = ordinal2;",
+            "  String name2(int i) {",
+            "    return name3;",
             "  }",
-            "}",
-            "class Second {",
-            "  static void bar() {",
-            "    Main.foo();",
+            "  String toString() {",
+            "    return name;",
             "  }",
             "}"),
         getFormattedSource(unit));
   }
 
-  public void test_configureRenameField() throws Exception {
+  public void test_giveUniqueName_genericOverride() throws Exception {
     setFileLines(
-        "test/A.java",
+        "test/Base.java",
         toString(
             "// filler filler filler filler filler filler filler filler filler filler",
             "package test;",
-            "public class A {",
-            "  int foo;",
-            "  static void foo() {}",
+            "public class Base<T> {",
+            "  void handle(T t) {}",
+            "  void handle(T t, int i) {}",
             "}",
             ""));
     setFileLines(
-        "test/B.java",
+        "test/Impl.java",
         toString(
             "// filler filler filler filler filler filler filler filler filler filler",
             "package test;",
-            "public class B {",
-            "  static void bar() {",
-            "    print(A.foo);",
+            "public class Impl extends Base<Integer> {",
+            "  void handle(Integer v) {}",
+            "  void run(Base<Integer> b) {",
+            "    b.handle(null);",
+            "    handle(null, 1);",
             "  }",
             "}",
             ""));
     Context context = new Context();
     context.addSourceFolder(tmpFolder);
     context.addSourceFiles(tmpFolder);
-    context.addRename("Ltest/A;.foo", "myField");
     CompilationUnit unit = context.translate();
+    // Impl.handle(Integer) overrides Base.handle(T), so has the same name
     assertEquals(
         toString(
-            "class A {",
-            "  int myField;",
-            "  static void foo() {",
+            "class Base<T> {",
+            "  void handle(T t) {",
+            "  }",
+            "  void handle2(T t, int i) {",
             "  }",
             "}",
-            "class B {",
-            "  static void bar() {",
-            "    print(A.myField);",
+            "class Impl extends Base<Integer> {",
+            "  void handle(Integer v) {",
+            "  }",
+            "  void run(Base<Integer> b) {",
+            "    b.handle(null);",
+            "    handle2(null, 1);",
             "  }",
             "}"),
         getFormattedSource(unit));
   }
 
-  public void test_configureRenameMethod() throws Exception {
+  public void test_giveUniqueName_hierarchy() throws Exception {
     setFileLines(
         "test/A.java",
         toString(
             "// filler filler filler filler filler filler filler filler filler filler",
             "package test;",
             "public class A {",
-            "  static void foo() {}",
-            "  static void foo(int p) {}",
+            "  void foo() {}",
+            "  void foo(int p) {}",
             "}",
             ""));
     setFileLines(
@@ -148,28 +679,31 @@ public class SemanticTest extends TestCase {
         toString(
             "// filler filler filler filler filler filler filler filler filler filler",
             "package test;",
-            "public class B {",
-            "  static void bar() {",
-            "    A.foo(42);",
+            "public class B extends A {",
+            "  void foo(int p) {}",
+            "  void bar() {",
+            "    foo(1);",
             "  }",
             "}",
             ""));
     Context context = new Context();
     context.addSourceFolder(tmpFolder);
     context.addSourceFiles(tmpFolder);
-    context.addRename("Ltest/A;.foo(I)", "fooWithInt");
     CompilationUnit unit = context.translate();
+    // B.foo(int) overrides A.foo(int), so has the same name
     assertEquals(
         toString(
             "class A {",
-            "  static void foo() {",
+            "  void foo() {",
             "  }",
-            "  static void fooWithInt(int p) {",
+            "  void foo2(int p) {",
             "  }",
             "}",
-            "class B {",
-            "  static void bar() {",
-            "    A.fooWithInt(42);",
+            "class B extends A {",
+            "  void foo2(int p) {",
+            "  }",
+            "  void bar() {",
+            "    foo2(1);",
             "  }",
             "}"),
         getFormattedSource(unit));
@@ -244,6 +778,56 @@ public class SemanticTest extends TestCase {
         getFormattedSource(unit));
   }
 
+  public void test_giveUniqueName_siblings() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A extends Base {",
+            "  void foo(int p) {}",
+            "}",
+            ""));
+    setFileLines(
+        "test/Base.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Base {",
+            "  void bar() {}",
+            "}",
+            ""));
+    setFileLines(
+        "test/C.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class C extends Base {",
+            "  void foo(String s) {}",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    CompilationUnit unit = context.translate();
+    // A and C are not on the same path through hierarchy, so their methods don't conflict
+    assertEquals(
+        toString(
+            "class A extends Base {",
+            "  void foo(int p) {",
+            "  }",
+            "}",
+            "class Base {",
+            "  void bar() {",
+            "  }",
+            "}",
+            "class C extends Base {",
+            "  void foo(String s) {",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
   public void test_giveUniqueName_variableInitializer() throws Exception {
     File file = setFileLines(
         "test/Test.java",
@@ -280,6 +864,294 @@ public class SemanticTest extends TestCase {
 //        getFormattedSource(unit));
   }
 
+  public void test_stats() throws Exception {
+    setFileLines(
+        "test/Test.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class Test {",
+            "  static void foo() {}",
+            "  static void foo(int p) {}",
+            "}",
+            ""));
+    TranslationStats stats = new TranslationStats();
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setStats(stats);
+    context.translate();
+    assertEquals(1, stats.getCount("files"));
+    assertEquals(1, stats.getCount("unique name renames"));
+    assertEquals(Long.valueOf(2), stats.getNodeCounts().get("MethodDeclaration"));
+    // JSON report
+    File jsonFile = new File(tmpFolder, "stats.json");
+    stats.writeJson(jsonFile);
+    String json = Files.toString(jsonFile, Charsets.UTF_8);
+    assertTrue(json.contains("\"wallMillis\""));
+    assertTrue(json.contains("\"phaseMillis\""));
+    assertTrue(json.contains("\"files\": 1"));
+    assertTrue(json.contains("\"MethodDeclaration\": 2"));
+  }
+
+  public void test_translateUnits() throws Exception {
+    File fileA = setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static void foo() {}",
+            "  static void foo(int p) {}",
+            "}",
+            ""));
+    File fileB = setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static void bar() {",
+            "    A.foo(42);",
+            "  }",
+            "}",
+            ""));
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    Map<File, CompilationUnit> units = context.translateUnits();
+    assertEquals(
+        ImmutableList.of(fileA.getAbsoluteFile(), fileB.getAbsoluteFile()),
+        ImmutableList.copyOf(units.keySet()));
+    assertEquals("test/B.java", context.getRelativePath(fileB).replace(File.separatorChar, '/'));
+    assertEquals(
+        toString(
+            "class A {",
+            "  static void foo() {",
+            "  }",
+            "  static void foo2(int p) {",
+            "  }",
+            "}"),
+        getFormattedSource(units.get(fileA.getAbsoluteFile())));
+    assertEquals(
+        toString(
+            "class B {",
+            "  static void bar() {",
+            "    A.foo2(42);",
+            "  }",
+            "}"),
+        getFormattedSource(units.get(fileB.getAbsoluteFile())));
+  }
+
+  public void test_translationCache() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static void foo() {}",
+            "  static void foo(int p) {}",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static void bar() {",
+            "    A.foo(42);",
+            "  }",
+            "}",
+            ""));
+    File cacheFolder = new File(tmpFolder, "cache");
+    cacheFolder.mkdir();
+    // fill cache
+    {
+      Context context = new Context();
+      context.addSourceFolder(tmpFolder);
+      context.addSourceFiles(tmpFolder);
+      context.setCacheFolder(cacheFolder);
+      context.translate();
+      assertEquals(2, cacheFolder.list().length);
+    }
+    // use cache, configured rename should be applied to loaded references
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setCacheFolder(cacheFolder);
+    context.addRename("Ltest/A;.foo(I)", "fooWithInt");
+    CompilationUnit unit = context.translate();
+    assertEquals(
+        toString(
+            "class A {",
+            "  static void foo() {",
+            "  }",
+            "  static void fooWithInt(int p) {",
+            "  }",
+            "}",
+            "class B {",
+            "  static void bar() {",
+            "    A.fooWithInt(42);",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_translationCache_corruptEntry() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static void foo() {}",
+            "}",
+            ""));
+    File cacheFolder = new File(tmpFolder, "cache");
+    cacheFolder.mkdir();
+    // fill cache
+    {
+      Context context = new Context();
+      context.addSourceFolder(tmpFolder);
+      context.addSourceFiles(tmpFolder);
+      context.setCacheFolder(cacheFolder);
+      context.translate();
+    }
+    // corrupt entries
+    for (File entryFile : cacheFolder.listFiles()) {
+      Files.write("12\nfoo\n", entryFile, Charsets.UTF_8);
+    }
+    // corrupted entry is a miss
+    TranslationStats stats = new TranslationStats();
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setCacheFolder(cacheFolder);
+    context.setStats(stats);
+    CompilationUnit unit = context.translate();
+    assertEquals(0, stats.getCount("cached files"));
+    assertEquals(
+        toString(
+            "class A {",
+            "  static void foo() {",
+            "  }",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_translationCache_dependencyChanged() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static final int X = 1;",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static final int Y = A.X + 1;",
+            "}",
+            ""));
+    File cacheFolder = new File(tmpFolder, "cache");
+    cacheFolder.mkdir();
+    // fill cache
+    {
+      Context context = new Context();
+      context.addSourceFolder(tmpFolder);
+      context.addSourceFiles(tmpFolder);
+      context.setCacheFolder(cacheFolder);
+      context.translate();
+    }
+    // change A, so cached B is stale
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static final int X = 5;",
+            "}",
+            ""));
+    TranslationStats stats = new TranslationStats();
+    Context context = new Context();
+    context.addSourceFolder(tmpFolder);
+    context.addSourceFiles(tmpFolder);
+    context.setCacheFolder(cacheFolder);
+    context.setStats(stats);
+    CompilationUnit unit = context.translate();
+    assertEquals(0, stats.getCount("cached files"));
+    assertEquals(
+        toString(
+            "class A {",
+            "  static const int X = 5;",
+            "}",
+            "class B {",
+            "  static const int Y = 6;",
+            "}"),
+        getFormattedSource(unit));
+  }
+
+  public void test_translationCache_foldedConstant() throws Exception {
+    setFileLines(
+        "test/A.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class A {",
+            "  static final int X = 1;",
+            "  private final int value;",
+            "  public A(int value) {",
+            "    this.value = value;",
+            "  }",
+            "  public int getValue() {",
+            "    return value;",
+            "  }",
+            "}",
+            ""));
+    setFileLines(
+        "test/B.java",
+        toString(
+            "// filler filler filler filler filler filler filler filler filler filler",
+            "package test;",
+            "public class B {",
+            "  static final int X = 2;",
+            "  static final int Y = X * 3;",
+            "  int foo(A a) {",
+            "    return a.getValue() + Y;",
+            "  }",
+            "}",
+            ""));
+    File cacheFolder = new File(tmpFolder, "cache");
+    cacheFolder.mkdir();
+    // cold and warm runs
+    String[] sources = new String[2];
+    TranslationStats[] runStats = new TranslationStats[2];
+    for (int i = 0; i < 2; i++) {
+      runStats[i] = new TranslationStats();
+      Context context = new Context();
+      context.addSourceFolder(tmpFolder);
+      context.addSourceFiles(tmpFolder);
+      context.setCacheFolder(cacheFolder);
+      context.setStats(runStats[i]);
+      sources[i] = getFormattedSource(context.translate());
+    }
+    assertEquals(0, runStats[0].getCount("cached files"));
+    assertEquals(2, runStats[1].getCount("cached files"));
+    // same output and references
+    assertEquals(sources[0], sources[1]);
+    assertTrue(sources[1].contains("static const int Y = 6;"));
+    assertEquals(runStats[0].getCount("references"), runStats[1].getCount("references"));
+    assertEquals(runStats[0].getCount("bindings"), runStats[1].getCount("bindings"));
+  }
+
   @Override
   protected void setUp() throws Exception {
     super.setUp();
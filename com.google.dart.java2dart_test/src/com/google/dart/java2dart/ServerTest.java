@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import com.google.common.io.CharStreams;
+import com.google.common.io.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Test for {@link Server}.
+ */
+public class ServerTest extends TestCase {
+  private File tmpFolder;
+  private Server server;
+  private Thread serverThread;
+
+  public void test_idleClient() throws Exception {
+    startServer(100);
+    Socket idleSocket = new Socket(InetAddress.getByName(null), server.getPort());
+    try {
+      String response = sendRequest(tmpFolder.getPath() + "\ttest/A.java");
+      assertTrue(response, response.contains("class A {"));
+    } finally {
+      idleSocket.close();
+    }
+  }
+
+  public void test_invalidRequest() throws Exception {
+    startServer(10000);
+    String response = sendRequest(tmpFolder.getPath() + "\ttest/NoSuchFile.java");
+    assertTrue(response, response.contains("Expected existing file: test/NoSuchFile.java"));
+    assertTrue(response, response.contains("Invalid request: "));
+  }
+
+  public void test_translate() throws Exception {
+    startServer(10000);
+    // each request is translated separately
+    for (int i = 0; i < 2; i++) {
+      String response = sendRequest(tmpFolder.getPath() + "\ttest/A.java");
+      assertTrue(response, response.contains("class A {"));
+      assertTrue(response, response.contains("void foo() {"));
+    }
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tmpFolder = Files.createTempDir();
+    File file = new File(tmpFolder, "test/A.java");
+    Files.createParentDirs(file);
+    Files.write(
+        "package test;\npublic class A {\n  void foo() {}\n}\n",
+        file,
+        Charsets.UTF_8);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    if (serverThread != null) {
+      sendRequest("stop");
+      serverThread.join(10000);
+      assertFalse(serverThread.isAlive());
+    }
+    FileUtils.deleteDirectory(tmpFolder);
+    super.tearDown();
+  }
+
+  /**
+   * Sends the given request line to the {@link #server}.
+   * 
+   * @return the full response.
+   */
+  private String sendRequest(String request) throws Exception {
+    Socket socket = new Socket(InetAddress.getByName(null), server.getPort());
+    try {
+      OutputStream outputStream = socket.getOutputStream();
+      outputStream.write((request + "\n").getBytes(Charsets.UTF_8));
+      outputStream.flush();
+      return CharStreams.toString(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+    } finally {
+      socket.close();
+    }
+  }
+
+  /**
+   * Starts the {@link Server} with the given read timeout on any free port.
+   */
+  private void startServer(int readTimeout) throws Exception {
+    server = new Server(0, readTimeout);
+    serverThread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          server.run();
+        } catch (Throwable e) {
+          e.printStackTrace();
+        }
+      }
+    };
+    serverThread.start();
+  }
+}
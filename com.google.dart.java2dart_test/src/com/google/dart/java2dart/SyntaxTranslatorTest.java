@@ -21,6 +21,7 @@ import com.google.dart.engine.ast.Comment;
 
 import junit.framework.TestCase;
 
+import org.eclipse.core.runtime.AssertionFailedException;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
@@ -143,6 +144,78 @@ public class SyntaxTranslatorTest extends TestCase {
     }
   }
 
+  public void test_constructor_finalFields() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  private final int x;",
+        "  private final String name;",
+        "  public A(int x, String n) {",
+        "    this.x = x;",
+        "    name = n;",
+        "  }",
+        "}");
+    assertDartSource("class A {final int x; final String name;"
+        + " const A(int this.x, String n) : name = n;}");
+  }
+
+  public void test_constructor_finalFields_notConst() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  private final int x;",
+        "  private int y;",
+        "  public A(int x, int y) {",
+        "    this.x = x;",
+        "    this.y = y;",
+        "    print(x);",
+        "  }",
+        "}");
+    assertDartSource("class A {final int x; int y;"
+        + " A(int x, int y) : x = x {this.y = y; print(x);}}");
+  }
+
+  public void test_constructor_finalFields_superInvocation() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  A(int p) {",
+        "  }",
+        "}",
+        "public class B extends A {",
+        "  private final int v;",
+        "  private final int w;",
+        "  B(int p) {",
+        "    super(p);",
+        "    v = p + 1;",
+        "    w = foo();",
+        "  }",
+        "  int foo() {",
+        "    return 0;",
+        "  }",
+        "}");
+    assertDartSource("class A {A(int p) {}} class B extends A {final int v; final int w;"
+        + " B(int p) : v = p + 1, super(p) {w = foo();} int foo() {return 0;}}");
+  }
+
+  public void test_constructor_finalFields_superInvocation_call() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  A(String p) {",
+        "  }",
+        "}",
+        "public class B extends A {",
+        "  private final String v;",
+        "  B(String p) {",
+        "    super(p);",
+        "    v = p.trim();",
+        "  }",
+        "}");
+    assertDartSource("class A {A(String p) {}} class B extends A {final String v;"
+        + " B(String p) : super(p) {v = p.trim();}}");
+  }
+
   public void test_enum() throws Exception {
     parseJava(
         "// filler filler filler filler filler filler filler filler filler filler",
@@ -157,10 +230,129 @@ public class SyntaxTranslatorTest extends TestCase {
         "  }",
         "}");
     assertDartSource("class Direction {"
-        + "static final Direction UP = new Direction(false); static final Direction DOWN = new Direction(false); "
-        + "static final Direction LEFT = new Direction(true); static final Direction RIGHT = new Direction(true); "
-        + "Direction(bool horizontal) {this.horizontal = horizontal;} "
-        + "final bool horizontal; bool isHorizontal() {return horizontal;}}");
+        + "static const Direction UP = const Direction(\"UP\", 0, false); "
+        + "static const Direction DOWN = const Direction(\"DOWN\", 1, false); "
+        + "static const Direction LEFT = const Direction(\"LEFT\", 2, true); "
+        + "static const Direction RIGHT = const Direction(\"RIGHT\", 3, true); "
+        + "static const List<Direction> values = const <Direction> [UP, DOWN, LEFT, RIGHT]; "
+        + "final String name; final int ordinal; "
+        + "const Direction(this.name, this.ordinal, bool this.horizontal); "
+        + "final bool horizontal; bool isHorizontal() {return horizontal;} "
+        + "String toString() {return name;}}");
+  }
+
+  public void test_enum_const() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public enum Priority {",
+        "  LOW(-1), HIGH(1);",
+        "  private Priority(int value) {",
+        "  }",
+        "  public String toString() {",
+        "    return \"priority\";",
+        "  }",
+        "}");
+    assertDartSource("class Priority {"
+        + "static const Priority LOW = const Priority(\"LOW\", 0, -1); "
+        + "static const Priority HIGH = const Priority(\"HIGH\", 1, 1); "
+        + "static const List<Priority> values = const <Priority> [LOW, HIGH]; "
+        + "final String name; final int ordinal; "
+        + "const Priority(this.name, this.ordinal, int value); "
+        + "String toString() {return \"priority\";}}");
+  }
+
+  public void test_enum_fieldInitializer() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public enum Direction {",
+        "  UP, DOWN;",
+        "  private final StringBuilder buffer = new StringBuilder();",
+        "}");
+    assertDartSource("class Direction {"
+        + "static final Direction UP = new Direction(\"UP\", 0); "
+        + "static final Direction DOWN = new Direction(\"DOWN\", 1); "
+        + "static final List<Direction> values = <Direction> [UP, DOWN]; "
+        + "final String name; final int ordinal; "
+        + "Direction(this.name, this.ordinal); "
+        + "final StringBuilder buffer = new StringBuilder(); "
+        + "String toString() {return name;}}");
+  }
+
+  public void test_enum_initializerCall() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public enum Direction {",
+        "  UP(\"up\");",
+        "  private final String upper;",
+        "  private Direction(String s) {",
+        "    upper = s.toUpperCase();",
+        "  }",
+        "}");
+    assertDartSource("class Direction {"
+        + "static final Direction UP = new Direction(\"UP\", 0, \"up\"); "
+        + "static final List<Direction> values = <Direction> [UP]; "
+        + "final String name; final int ordinal; "
+        + "final String upper; "
+        + "Direction(this.name, this.ordinal, String s) : upper = s.toUpperCase() {} "
+        + "String toString() {return name;}}");
+  }
+
+  public void test_enum_noConstructor() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public enum Direction {",
+        "  UP, DOWN",
+        "}");
+    assertDartSource("class Direction {"
+        + "static const Direction UP = const Direction(\"UP\", 0); "
+        + "static const Direction DOWN = const Direction(\"DOWN\", 1); "
+        + "static const List<Direction> values = const <Direction> [UP, DOWN]; "
+        + "final String name; final int ordinal; "
+        + "const Direction(this.name, this.ordinal); "
+        + "String toString() {return name;}}");
+  }
+
+  public void test_enum_parameterName() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public enum Color {",
+        "  RED(\"r\");",
+        "  private final String code;",
+        "  private Color(String name) {",
+        "    code = name;",
+        "  }",
+        "}");
+    assertDartSource("class Color {"
+        + "static const Color RED = const Color(\"RED\", 0, \"r\"); "
+        + "static const List<Color> values = const <Color> [RED]; "
+        + "final String name; final int ordinal; "
+        + "final String code; "
+        + "const Color(this.name, this.ordinal, String name2) : code = name2; "
+        + "String toString() {return name;}}");
+  }
+
+  public void test_enum_redirectingConstructor() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public enum Size {",
+        "  SMALL, LARGE(2);",
+        "  private final int value;",
+        "  private Size() {",
+        "    this(1);",
+        "  }",
+        "  private Size(int value) {",
+        "    this.value = value;",
+        "  }",
+        "}");
+    assertDartSource("class Size {"
+        + "static const Size SMALL = const Size(\"SMALL\", 0); "
+        + "static const Size LARGE = const Size(\"LARGE\", 1, 2); "
+        + "static const List<Size> values = const <Size> [SMALL, LARGE]; "
+        + "final String name; final int ordinal; "
+        + "final int value; "
+        + "const Size(String name, int ordinal) : this(name, ordinal, 1); "
+        + "const Size(this.name, this.ordinal, int this.value); "
+        + "String toString() {return name;}}");
   }
 
   public void test_enum_withImplements() throws Exception {
@@ -169,7 +361,11 @@ public class SyntaxTranslatorTest extends TestCase {
         "public interface I {}",
         "public enum Direction implements I {",
         "}");
-    assertDartSource("abstract class I {} class Direction implements I {}");
+    assertDartSource("abstract class I {} class Direction implements I {"
+        + "static const List<Direction> values = const <Direction> []; "
+        + "final String name; final int ordinal; "
+        + "const Direction(this.name, this.ordinal); "
+        + "String toString() {return name;}}");
   }
 
   public void test_expressionArrayAccess() throws Exception {
@@ -469,6 +665,31 @@ public class SyntaxTranslatorTest extends TestCase {
     assertDartSource("class A {int field; int f1 = 1, f2 = 2;}");
   }
 
+  public void test_field_constant() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  static final int ZERO = 0;",
+        "  static final int MINUS_ONE = -1;",
+        "  static final String NAME = \"name\";",
+        "  static final int TWO = ZERO + 2;",
+        "  static int counter = 0;",
+        "  final int size = 0;",
+        "}");
+    assertDartSource("class A {static const int ZERO = 0; static const int MINUS_ONE = -1;"
+        + " static const String NAME = \"name\"; static final int TWO = ZERO + 2;"
+        + " static int counter = 0; final int size = 0;}");
+  }
+
+  public void test_field_interfaceConstant() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public interface I {",
+        "  int ZERO = 0;",
+        "}");
+    assertDartSource("abstract class I {static const int ZERO = 0;}");
+  }
+
   public void test_interface() throws Exception {
     parseJava(
         "// filler filler filler filler filler filler filler filler filler filler",
@@ -641,6 +862,19 @@ public class SyntaxTranslatorTest extends TestCase {
         + "void mPrivate() {} static void mStatic() {}}");
   }
 
+  public void test_notImplemented() throws Exception {
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public @interface A {",
+        "}");
+    try {
+      SyntaxTranslator.translate(context, javaUnit);
+      fail();
+    } catch (AssertionFailedException e) {
+      assertThat(e.getMessage()).contains("No result for").contains("AnnotationTypeDeclaration");
+    }
+  }
+
   public void test_statementAssert() throws Exception {
     parseJava(
         "// filler filler filler filler filler filler filler filler filler filler",
@@ -985,6 +1219,62 @@ public class SyntaxTranslatorTest extends TestCase {
     assertDartSource("class A {A() {bool v1; int v2; int v3; int v4; int v5; int v6; double v7; double v8;}}");
   }
 
+  public void test_typedData_arrayCreation() throws Exception {
+    context.setTypedData(true);
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  A() {",
+        "    int[] v1 = new int[3];",
+        "    long[] v2 = new long[] {1, 2};",
+        "    byte[][] v3 = new byte[2][];",
+        "  }",
+        "}");
+    assertDartSource("import 'dart:typed_data'; class A {A() {Int32List v1 = new Int32List(3);"
+        + " Int64List v2 = new Int64List.fromList([1, 2]);"
+        + " List<Int8List> v3 = new List<Int8List>.fixedLength(2);}}");
+  }
+
+  public void test_typedData_arrayInitializer() throws Exception {
+    context.setTypedData(true);
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  int[] f = {1, 2};",
+        "  A() {",
+        "    int[][] v1 = {{1}, {2, 3}};",
+        "    boolean[] v2 = {true};",
+        "  }",
+        "}");
+    assertDartSource("import 'dart:typed_data'; class A {Int32List f = new Int32List.fromList([1, 2]);"
+        + " A() {List<Int32List> v1 = [new Int32List.fromList([1]), new Int32List.fromList([2, 3])];"
+        + " List<bool> v2 = [true];}}");
+  }
+
+  public void test_typedData_notUsed() throws Exception {
+    context.setTypedData(true);
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  A() {",
+        "    String[] v = new String[3];",
+        "  }",
+        "}");
+    assertDartSource("class A {A() {List<String> v = new List<String>.fixedLength(3);}}");
+  }
+
+  public void test_typedData_types() throws Exception {
+    context.setTypedData(true);
+    parseJava(
+        "// filler filler filler filler filler filler filler filler filler filler",
+        "public class A {",
+        "  A(byte[] p1, short[] p2, char[] p3, float[] p4, double[] p5, boolean[] p6) {",
+        "  }",
+        "}");
+    assertDartSource("import 'dart:typed_data'; class A {A(Int8List p1, Int16List p2, Uint16List p3,"
+        + " Float32List p4, Float64List p5, List<bool> p6) {}}");
+  }
+
   public void test_unitEmpty() throws Exception {
     parseJava();
     assertDartSource("");
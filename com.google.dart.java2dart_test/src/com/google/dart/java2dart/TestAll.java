@@ -22,6 +22,9 @@ public class TestAll {
     suite.addTest(com.google.dart.java2dart.util.TestAll.suite());
     suite.addTestSuite(SyntaxTranslatorTest.class);
     suite.addTestSuite(SemanticTest.class);
+    suite.addTestSuite(MainTest.class);
+    suite.addTestSuite(ServerTest.class);
+    suite.addTestSuite(TranslationStatsTest.class);
     return suite;
   }
 }
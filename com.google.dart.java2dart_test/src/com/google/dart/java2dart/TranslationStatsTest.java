@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.Charsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Test for {@link TranslationStats}.
+ */
+public class TranslationStatsTest extends TestCase {
+  private static final long SECOND = 1000000000L;
+
+  public void test_printSummary_parallel() throws Exception {
+    TranslationStats stats = new TranslationStats();
+    // two threads parse during 3 seconds each, so phases sum to more than wall time
+    TranslationStats threadStats = new TranslationStats();
+    threadStats.addTime("parse", 3 * SECOND);
+    stats.addAll(threadStats);
+    stats.addAll(threadStats);
+    stats.addTime("unique names", SECOND);
+    stats.addWallTime(4 * SECOND);
+    stats.addCount("files", 100);
+    assertEquals(4000, stats.getWallTime());
+    String summary = getSummary(stats);
+    assertTrue(summary, summary.contains("Wall time: 4000 ms"));
+    assertTrue(summary, summary.contains("parse: 6000 ms (150%)"));
+    assertTrue(summary, summary.contains("unique names: 1000 ms (25%)"));
+    assertTrue(summary, summary.contains("Throughput: 25 files/s"));
+  }
+
+  public void test_printSummary_noWallTime() throws Exception {
+    TranslationStats stats = new TranslationStats();
+    stats.addTime("parse", 3 * SECOND);
+    stats.addTime("translate", SECOND);
+    stats.addCount("files", 100);
+    assertEquals(4000, stats.getWallTime());
+    String summary = getSummary(stats);
+    assertTrue(summary, summary.contains("parse: 3000 ms (75%)"));
+    assertTrue(summary, summary.contains("Throughput: 25 files/s"));
+  }
+
+  private String getSummary(TranslationStats stats) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(bytes, true, Charsets.UTF_8.name());
+    stats.printSummary(out);
+    return bytes.toString(Charsets.UTF_8.name());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.java2dart.util;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+
+/**
+ * Test for {@link ChannelWriter}.
+ */
+public class ChannelWriterTest extends TestCase {
+  private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+  public void test_bufferSize_tooSmall() throws Exception {
+    try {
+      new ChannelWriter(Channels.newChannel(outputStream), Charsets.UTF_8, 2);
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void test_write() throws Exception {
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(outputStream));
+    writer.write("class A {");
+    writer.write('\n');
+    writer.write(new char[] {'}', '\n'});
+    writer.close();
+    assertEquals("class A {\n}\n", getOutput());
+    assertEquals(12, writer.getCharCount());
+  }
+
+  public void test_write_direct() throws Exception {
+    String content = StringUtils.repeat("// \u0444\n", 1000);
+    ChannelWriter writer = new ChannelWriter(
+        Channels.newChannel(outputStream),
+        Charsets.UTF_8,
+        64,
+        true);
+    writer.write(content);
+    writer.close();
+    assertEquals(content, getOutput());
+  }
+
+  public void test_write_flush() throws Exception {
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(outputStream));
+    writer.write("class A {}");
+    assertEquals("", getOutput());
+    writer.flush();
+    assertEquals("class A {}", getOutput());
+  }
+
+  public void test_write_large() throws Exception {
+    String content = StringUtils.repeat("// \u0444\n", 1000);
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(outputStream), Charsets.UTF_8, 16);
+    writer.write(content);
+    for (char c : content.toCharArray()) {
+      writer.write(c);
+    }
+    writer.write(content.toCharArray());
+    writer.close();
+    assertEquals(content + content + content, getOutput());
+  }
+
+  public void test_write_surrogatePairs() throws Exception {
+    String content = StringUtils.repeat("a\uD834\uDD1E", 100);
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(outputStream), Charsets.UTF_8, 16);
+    writer.write(content);
+    writer.close();
+    assertEquals(content, getOutput());
+  }
+
+  private String getOutput() {
+    return new String(outputStream.toByteArray(), Charsets.UTF_8);
+  }
+}
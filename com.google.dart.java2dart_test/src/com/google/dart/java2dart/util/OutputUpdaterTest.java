@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.dart.java2dart.util;
+
+import com.google.common.io.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Test for {@link OutputUpdater}.
+ */
+public class OutputUpdaterTest extends TestCase {
+  private File tmpFolder;
+
+  public void test_deleteStale() throws Exception {
+    File hashesFile = new File(tmpFolder, "hashes");
+    File fileA = new File(tmpFolder, "a/A.dart");
+    File fileB = new File(tmpFolder, "a/B.dart");
+    // first run, write both files
+    {
+      OutputUpdater updater = new OutputUpdater(hashesFile);
+      write(updater, fileA, "class A {}");
+      write(updater, fileB, "class B {}");
+      updater.deleteStale();
+      assertEquals(0, updater.getDeletedCount());
+      updater.saveHashes();
+    }
+    // second run, source of B was deleted
+    {
+      OutputUpdater updater = new OutputUpdater(hashesFile);
+      assertFalse(write(updater, fileA, "class A {}"));
+      updater.deleteStale();
+      updater.saveHashes();
+      assertEquals(1, updater.getDeletedCount());
+    }
+    assertTrue(fileA.exists());
+    assertFalse(fileB.exists());
+    assertFalse(Files.toString(hashesFile, Charsets.UTF_8).contains("B.dart"));
+  }
+
+  public void test_deleteStale_noHashes() throws Exception {
+    File file = new File(tmpFolder, "A.dart");
+    Files.write("class A {}", file, Charsets.UTF_8);
+    OutputUpdater updater = new OutputUpdater(null);
+    updater.deleteStale();
+    assertEquals(0, updater.getDeletedCount());
+    assertTrue(file.exists());
+  }
+
+  public void test_discard() throws Exception {
+    File file = new File(tmpFolder, "A.dart");
+    Files.write("class A {}", file, Charsets.UTF_8);
+    OutputUpdater updater = new OutputUpdater(null);
+    WritableByteChannel channel = updater.open(file);
+    channel.write(ByteBuffer.wrap("class B".getBytes(Charsets.UTF_8)));
+    updater.discard(file);
+    assertFalse(channel.isOpen());
+    assertEquals("class A {}", Files.toString(file, Charsets.UTF_8));
+    assertEquals(0, updater.getWrittenCount());
+    // no temporary file left, file can be open again
+    assertEquals(1, tmpFolder.list().length);
+    updater.discard(file);
+    assertTrue(write(updater, file, "class B {}"));
+  }
+
+  public void test_update_cannotRename() throws Exception {
+    // non-empty folder cannot be replaced with file
+    File file = new File(tmpFolder, "A.dart");
+    File fileB = new File(file, "B.dart");
+    Files.createParentDirs(fileB);
+    Files.write("class B {}", fileB, Charsets.UTF_8);
+    OutputUpdater updater = new OutputUpdater(null);
+    try {
+      write(updater, file, "class A {}");
+      fail();
+    } catch (IOException e) {
+    }
+    // no temporary file left
+    assertEquals(1, tmpFolder.list().length);
+  }
+
+  public void test_update_changed() throws Exception {
+    File file = new File(tmpFolder, "a/A.dart");
+    Files.createParentDirs(file);
+    Files.write("class A {}", file, Charsets.UTF_8);
+    OutputUpdater updater = new OutputUpdater(null);
+    assertTrue(write(updater, file, "class B {}"));
+    assertEquals("class B {}", Files.toString(file, Charsets.UTF_8));
+    assertEquals(1, updater.getWrittenCount());
+    assertEquals(0, updater.getSkippedCount());
+    assertEquals(1, file.getParentFile().list().length);
+  }
+
+  public void test_update_new() throws Exception {
+    File file = new File(tmpFolder, "a/A.dart");
+    OutputUpdater updater = new OutputUpdater(null);
+    assertTrue(write(updater, file, "class A {}"));
+    assertEquals("class A {}", Files.toString(file, Charsets.UTF_8));
+    assertEquals(1, updater.getWrittenCount());
+  }
+
+  public void test_update_notOpen() throws Exception {
+    OutputUpdater updater = new OutputUpdater(null);
+    try {
+      updater.update(new File(tmpFolder, "A.dart"));
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void test_update_unchanged() throws Exception {
+    File file = new File(tmpFolder, "A.dart");
+    Files.write("class A {}", file, Charsets.UTF_8);
+    file.setLastModified(1000L);
+    OutputUpdater updater = new OutputUpdater(null);
+    assertFalse(write(updater, file, "class A {}"));
+    assertEquals(1000L, file.lastModified());
+    assertEquals(0, updater.getWrittenCount());
+    assertEquals(1, updater.getSkippedCount());
+    assertEquals(1, tmpFolder.list().length);
+  }
+
+  public void test_update_withHashes() throws Exception {
+    File hashesFile = new File(tmpFolder, "hashes");
+    File file = new File(tmpFolder, "a/A.dart");
+    // first run, write file and its hash
+    {
+      OutputUpdater updater = new OutputUpdater(hashesFile);
+      assertTrue(write(updater, file, "class A {}"));
+      updater.saveHashes();
+    }
+    assertTrue(Files.toString(hashesFile, Charsets.UTF_8).contains(" a/A.dart\n"));
+    // second run, same content
+    {
+      OutputUpdater updater = new OutputUpdater(hashesFile);
+      assertFalse(write(updater, file, "class A {}"));
+      assertEquals(1, updater.getSkippedCount());
+    }
+    // file was modified, so recorded hash is not used
+    Files.write("class B {}", file, Charsets.UTF_8);
+    file.setLastModified(1000L);
+    {
+      OutputUpdater updater = new OutputUpdater(hashesFile);
+      assertTrue(write(updater, file, "class A {}"));
+      assertEquals("class A {}", Files.toString(file, Charsets.UTF_8));
+    }
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tmpFolder = Files.createTempDir();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtils.deleteDirectory(tmpFolder);
+    super.tearDown();
+  }
+
+  /**
+   * Writes the given content using {@link OutputUpdater}.
+   */
+  private boolean write(OutputUpdater updater, File file, String content) throws Exception {
+    WritableByteChannel channel = updater.open(file);
+    ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(Charsets.UTF_8));
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    channel.close();
+    return updater.update(file);
+  }
+}
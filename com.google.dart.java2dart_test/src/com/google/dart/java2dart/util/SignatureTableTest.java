@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.java2dart.util;
+
+import junit.framework.TestCase;
+
+/**
+ * Test for {@link SignatureTable}.
+ */
+public class SignatureTableTest extends TestCase {
+
+  public void test_intern() throws Exception {
+    SignatureTable table = new SignatureTable();
+    assertEquals(0, table.size());
+    assertEquals(-1, table.find("Ltest/A;"));
+    // new signatures have dense identifiers
+    assertEquals(0, table.intern("Ltest/A;"));
+    assertEquals(1, table.intern("Ltest/A;.foo()"));
+    assertEquals(2, table.size());
+    // existing signature
+    assertEquals(1, table.intern("Ltest/A;.foo()"));
+    assertEquals(1, table.find("Ltest/A;.foo()"));
+    assertEquals("Ltest/A;.foo()", table.get(1));
+    assertEquals(2, table.size());
+  }
+
+  public void test_rename() throws Exception {
+    SignatureTable table = new SignatureTable();
+    table.intern("Ltest/A;.foo()");
+    table.intern("Ltest/A;.bar()");
+    table.rename(0, "Ltest/A;.baz()");
+    assertEquals("Ltest/A;.baz()", table.get(0));
+    assertEquals(0, table.find("Ltest/A;.baz()"));
+    assertEquals(-1, table.find("Ltest/A;.foo()"));
+    assertEquals(2, table.size());
+    // old signature is free now
+    assertEquals(2, table.intern("Ltest/A;.foo()"));
+  }
+
+  public void test_rename_alreadyUsed() throws Exception {
+    SignatureTable table = new SignatureTable();
+    table.intern("Ltest/A;.foo()");
+    table.intern("Ltest/A;.bar()");
+    try {
+      table.rename(0, "Ltest/A;.bar()");
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+  }
+}
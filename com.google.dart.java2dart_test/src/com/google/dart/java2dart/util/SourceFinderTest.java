@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.java2dart.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Test for {@link SourceFinder}.
+ */
+public class SourceFinderTest extends TestCase {
+  private File tmpFolder;
+
+  public void test_compileGlob() throws Exception {
+    assertTrue(SourceFinder.compileGlob("*.java").matcher("A.java").matches());
+    assertFalse(SourceFinder.compileGlob("*.java").matcher("a/A.java").matches());
+    assertTrue(SourceFinder.compileGlob("**/*.java").matcher("A.java").matches());
+    assertTrue(SourceFinder.compileGlob("**/*.java").matcher("a/b/A.java").matches());
+    assertTrue(SourceFinder.compileGlob("a/**").matcher("a/b/A.java").matches());
+    assertTrue(SourceFinder.compileGlob("?.java").matcher("A.java").matches());
+    assertFalse(SourceFinder.compileGlob("?.java").matcher("AB.java").matches());
+  }
+
+  public void test_find() throws Exception {
+    touch("b/B.java");
+    touch("a/A.java");
+    touch("a-b.java");
+    touch("a/b/C.java");
+    touch("a/readme.txt");
+    touch("Z.java");
+    assertEquals(
+        ImmutableList.of("Z.java", "a-b.java", "a/A.java", "a/b/C.java", "b/B.java"),
+        find(new SourceFinder(1)));
+    // same result in parallel
+    assertEquals(
+        ImmutableList.of("Z.java", "a-b.java", "a/A.java", "a/b/C.java", "b/B.java"),
+        find(new SourceFinder(4)));
+  }
+
+  public void test_find_excludeFolder() throws Exception {
+    touch("a/A.java");
+    touch("a/test/ATest.java");
+    touch("b/test/BTest.java");
+    SourceFinder finder = new SourceFinder(2);
+    finder.addExclude("**/test");
+    assertEquals(ImmutableList.of("a/A.java"), find(finder));
+  }
+
+  public void test_find_include() throws Exception {
+    touch("a/A.java");
+    touch("a/AImpl.java");
+    touch("b/B.java");
+    touch("b/BImpl.java");
+    SourceFinder finder = new SourceFinder(1);
+    finder.addInclude("a/**");
+    finder.addInclude("**/*Impl.java");
+    finder.addExclude("a/AImpl.java");
+    assertEquals(ImmutableList.of("a/A.java", "b/BImpl.java"), find(finder));
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tmpFolder = Files.createTempDir();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtils.deleteDirectory(tmpFolder);
+    super.tearDown();
+  }
+
+  /**
+   * @return the paths of the found files, relative to {@link #tmpFolder}.
+   */
+  private List<String> find(SourceFinder finder) throws Exception {
+    List<String> paths = Lists.newArrayList();
+    String prefix = tmpFolder.getPath() + File.separator;
+    for (File file : finder.find(tmpFolder)) {
+      paths.add(file.getPath().substring(prefix.length()).replace(File.separatorChar, '/'));
+    }
+    return paths;
+  }
+
+  private void touch(String path) throws Exception {
+    File file = new File(tmpFolder, path);
+    Files.createParentDirs(file);
+    Files.touch(file);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.java2dart.util;
+
+import com.google.common.io.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+
+/**
+ * Test for {@link SourceReader}.
+ */
+public class SourceReaderTest extends TestCase {
+  private File tmpFile;
+
+  public void test_read_ascii() throws Exception {
+    Files.write("class A {}", tmpFile, Charsets.UTF_8);
+    SourceReader reader = new SourceReader();
+    char[] chars = reader.read(tmpFile);
+    assertEquals("class A {}", new String(chars));
+    assertEquals(10, reader.getBytesRead());
+  }
+
+  public void test_read_large() throws Exception {
+    String content = StringUtils.repeat("// \u0444\n", 300000);
+    Files.write(content, tmpFile, Charsets.UTF_8);
+    SourceReader reader = new SourceReader();
+    assertEquals(content, new String(reader.read(tmpFile)));
+    assertEquals(content.getBytes(Charsets.UTF_8).length, reader.getBytesRead());
+  }
+
+  public void test_read_reuse() throws Exception {
+    SourceReader reader = new SourceReader();
+    Files.write("class Longer {}", tmpFile, Charsets.UTF_8);
+    assertEquals("class Longer {}", new String(reader.read(tmpFile)));
+    Files.write("class A {}", tmpFile, Charsets.UTF_8);
+    assertEquals("class A {}", new String(reader.read(tmpFile)));
+  }
+
+  public void test_read_utf8() throws Exception {
+    Files.write("String s = \"\u0444\u0432\";", tmpFile, Charsets.UTF_8);
+    SourceReader reader = new SourceReader();
+    char[] chars = reader.read(tmpFile);
+    assertEquals("String s = \"\u0444\u0432\";", new String(chars));
+    assertEquals(16, chars.length);
+    assertEquals(18, reader.getBytesRead());
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tmpFile = File.createTempFile("SourceReaderTest", ".java");
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    tmpFile.delete();
+    super.tearDown();
+  }
+}
@@ -19,8 +19,13 @@ import junit.framework.TestSuite;
 public class TestAll {
   public static Test suite() {
     TestSuite suite = new TestSuite("Tests in " + TestAll.class.getPackage().getName());
+    suite.addTestSuite(ChannelWriterTest.class);
     suite.addTestSuite(ExecutionUtilsTest.class);
     suite.addTestSuite(JavaUtilsTest.class);
+    suite.addTestSuite(OutputUpdaterTest.class);
+    suite.addTestSuite(SignatureTableTest.class);
+    suite.addTestSuite(SourceFinderTest.class);
+    suite.addTestSuite(SourceReaderTest.class);
     return suite;
   }
 }